@@ -0,0 +1,344 @@
+package org.diretto.api.client.main.feed;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ScheduledFuture;
+
+import org.apache.commons.configuration.XMLConfiguration;
+import org.diretto.api.client.main.feed.atom.FeedEntry;
+import org.diretto.api.client.main.feed.dispatch.Dispatcher;
+
+/**
+ * This class represents a {@code CheckpointStore}, which keeps the watermark of
+ * each {@link FeedType}. The watermark is the latest processed
+ * {@link FeedEntry} of the corresponding {@code Feed}. <br/><br/>
+ * 
+ * If the store is activated, the watermarks are persisted to a properties file
+ * per service, so that a restarted {@link FeedService} is able to catch up with
+ * the entries which have been published during the downtime. The file is
+ * written asynchronously after the configured flush interval. It is written to
+ * a temporary file first, which then replaces the previous file, so that a
+ * crash never leaves a partially written file behind. <br/><br/>
+ * 
+ * While crawls of a {@code Feed} are running, the watermark of the {@code Feed}
+ * is held back, so that pushed entries never move it past entries which have
+ * not been crawled yet. The holds are counted per {@code Feed}, so that
+ * overlapping crawls do not release each other's hold. The latest entry which
+ * has been pushed in the meantime is applied when the last hold has been
+ * released. <br/><br/>
+ * 
+ * A crawl which has been stopped early (because of the page limit or the time
+ * budget) advances the watermark to the latest crawled entry nevertheless. The
+ * entries between the former watermark and the oldest crawled page are skipped
+ * (the loss is logged), because holding the watermark back would repeat the
+ * same bounded crawl after every restart without ever saving progress.
+ * 
+ * @author Tobias Schlecht
+ */
+final class CheckpointStore
+{
+	private static final String ENTRY_ID_SUFFIX = ".entry-id";
+	private static final String UPDATED_SUFFIX = ".updated";
+
+	private final Dispatcher dispatcher;
+	private final boolean activated;
+	private final long flushInterval;
+	private final File file;
+
+	private final Map<FeedType, FeedEntry> watermarks = new EnumMap<FeedType, FeedEntry>(FeedType.class);
+	private final Map<FeedType, Integer> watermarkHolds = new EnumMap<FeedType, Integer>(FeedType.class);
+	private final Map<FeedType, FeedEntry> heldAdvances = new EnumMap<FeedType, FeedEntry>(FeedType.class);
+
+	private ScheduledFuture<?> scheduledFlush = null;
+
+	private final Runnable flushTask = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			flush();
+		}
+	};
+
+	/**
+	 * Constructs a {@link CheckpointStore} and loads the persisted watermarks.
+	 * 
+	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 * @param serviceURL The service {@code URL}
+	 * @param dispatcher The {@code Dispatcher} which is used for the timing
+	 */
+	CheckpointStore(XMLConfiguration xmlConfiguration, URL serviceURL, Dispatcher dispatcher)
+	{
+		this.dispatcher = dispatcher;
+
+		activated = xmlConfiguration.getBoolean("checkpoint/activated");
+		flushInterval = Math.max(0, xmlConfiguration.getLong("checkpoint/flush-interval"));
+
+		File directory = new File(xmlConfiguration.getString("checkpoint/directory"));
+
+		if(!directory.isAbsolute())
+		{
+			directory = new File(System.getProperty("user.home"), directory.getPath());
+		}
+
+		file = new File(directory, serviceURL.toExternalForm().replaceAll("[^A-Za-z0-9.-]", "_") + ".properties");
+
+		if(activated)
+		{
+			load();
+		}
+	}
+
+	/**
+	 * Returns the watermark of the given {@link FeedType}.
+	 * 
+	 * @param feedType A {@code FeedType}
+	 * @return The latest processed {@code FeedEntry} or {@code null} if there
+	 *         is no watermark
+	 */
+	synchronized FeedEntry getWatermark(FeedType feedType)
+	{
+		return watermarks.get(feedType);
+	}
+
+	/**
+	 * Advances the watermark of the given {@link FeedType} to the given
+	 * {@link FeedEntry}, unless the current watermark has been updated later.
+	 * While the watermark is held back because of a running crawl, the
+	 * {@code FeedEntry} is only remembered and applied when the last hold has
+	 * been released.
+	 * 
+	 * @param feedType A {@code FeedType}
+	 * @param entry The latest processed {@code FeedEntry}
+	 */
+	synchronized void advance(FeedType feedType, FeedEntry entry)
+	{
+		if(watermarkHolds.containsKey(feedType))
+		{
+			FeedEntry heldAdvance = heldAdvances.get(feedType);
+
+			if(heldAdvance == null || heldAdvance.getUpdated() <= entry.getUpdated())
+			{
+				heldAdvances.put(feedType, entry);
+			}
+
+			return;
+		}
+
+		update(feedType, entry);
+	}
+
+	/**
+	 * Holds the watermark of the given {@link FeedType} back until the crawl
+	 * which begins now has ended. Every call has to be followed by a call of
+	 * {@link #endCrawl(FeedType, FeedEntry)}.
+	 * 
+	 * @param feedType A {@code FeedType}
+	 */
+	synchronized void beginCrawl(FeedType feedType)
+	{
+		Integer holds = watermarkHolds.get(feedType);
+
+		watermarkHolds.put(feedType, Integer.valueOf(holds == null ? 1 : holds.intValue() + 1));
+	}
+
+	/**
+	 * Releases the hold of a crawl of the given {@link FeedType} and advances
+	 * the watermark to the latest crawled {@link FeedEntry}. When the last hold
+	 * has been released, the latest {@code FeedEntry} which has been pushed in
+	 * the meantime is applied as well.
+	 * 
+	 * @param feedType A {@code FeedType}
+	 * @param latestEntry The latest crawled {@code FeedEntry} or {@code null}
+	 *        if the crawl has not found any new {@code FeedEntry}
+	 */
+	synchronized void endCrawl(FeedType feedType, FeedEntry latestEntry)
+	{
+		Integer holds = watermarkHolds.get(feedType);
+
+		if(holds == null || holds.intValue() <= 1)
+		{
+			watermarkHolds.remove(feedType);
+		}
+		else
+		{
+			watermarkHolds.put(feedType, Integer.valueOf(holds.intValue() - 1));
+		}
+
+		if(latestEntry != null)
+		{
+			update(feedType, latestEntry);
+		}
+
+		if(!watermarkHolds.containsKey(feedType))
+		{
+			FeedEntry heldAdvance = heldAdvances.remove(feedType);
+
+			if(heldAdvance != null)
+			{
+				update(feedType, heldAdvance);
+			}
+		}
+	}
+
+	/**
+	 * Sets the watermark of the given {@link FeedType} to the given
+	 * {@link FeedEntry}, unless the current watermark has been updated later,
+	 * and schedules the flush of the checkpoint file.
+	 * 
+	 * @param feedType A {@code FeedType}
+	 * @param entry The latest processed {@code FeedEntry}
+	 */
+	private void update(FeedType feedType, FeedEntry entry)
+	{
+		FeedEntry watermark = watermarks.get(feedType);
+
+		if(watermark != null && watermark.getUpdated() > entry.getUpdated())
+		{
+			return;
+		}
+
+		watermarks.put(feedType, entry);
+
+		if(activated && scheduledFlush == null)
+		{
+			scheduledFlush = dispatcher.schedule(flushTask, flushInterval);
+		}
+	}
+
+	/**
+	 * Writes the current watermarks to the checkpoint file. The file is written
+	 * without holding the lock of the watermarks.
+	 */
+	void flush()
+	{
+		Properties properties = new Properties();
+
+		synchronized(this)
+		{
+			if(scheduledFlush != null)
+			{
+				scheduledFlush.cancel(false);
+
+				scheduledFlush = null;
+			}
+
+			if(!activated)
+			{
+				return;
+			}
+
+			for(Map.Entry<FeedType, FeedEntry> watermark : watermarks.entrySet())
+			{
+				String feedName = watermark.getKey().getFeedName();
+
+				properties.setProperty(feedName + ENTRY_ID_SUFFIX, watermark.getValue().getId());
+				properties.setProperty(feedName + UPDATED_SUFFIX, String.valueOf(watermark.getValue().getUpdated()));
+			}
+		}
+
+		synchronized(file)
+		{
+			write(properties);
+		}
+	}
+
+	/**
+	 * Writes the given {@link Properties} to the checkpoint file.
+	 * 
+	 * @param properties The {@code Properties} with the watermarks
+	 */
+	private void write(Properties properties)
+	{
+		File temporaryFile = new File(file.getPath() + ".tmp");
+
+		try
+		{
+			file.getParentFile().mkdirs();
+
+			FileOutputStream outputStream = new FileOutputStream(temporaryFile);
+
+			try
+			{
+				properties.store(outputStream, null);
+
+				outputStream.getFD().sync();
+			}
+			finally
+			{
+				outputStream.close();
+			}
+
+			if(!temporaryFile.renameTo(file))
+			{
+				file.delete();
+
+				if(!temporaryFile.renameTo(file))
+				{
+					throw new IOException("The checkpoint file could not be replaced: " + file.getPath());
+				}
+			}
+		}
+		catch(IOException e)
+		{
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Loads the watermarks from the checkpoint file, if it exists.
+	 */
+	private void load()
+	{
+		if(!file.isFile())
+		{
+			return;
+		}
+
+		Properties properties = new Properties();
+
+		try
+		{
+			FileInputStream inputStream = new FileInputStream(file);
+
+			try
+			{
+				properties.load(inputStream);
+			}
+			finally
+			{
+				inputStream.close();
+			}
+		}
+		catch(IOException e)
+		{
+			e.printStackTrace();
+
+			return;
+		}
+
+		for(FeedType feedType : FeedType.values())
+		{
+			String entryID = properties.getProperty(feedType.getFeedName() + ENTRY_ID_SUFFIX);
+			String updated = properties.getProperty(feedType.getFeedName() + UPDATED_SUFFIX);
+
+			if(entryID != null && updated != null)
+			{
+				try
+				{
+					watermarks.put(feedType, new FeedEntry(entryID, Long.parseLong(updated)));
+				}
+				catch(NumberFormatException e)
+				{
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+}
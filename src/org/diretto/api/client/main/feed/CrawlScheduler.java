@@ -0,0 +1,76 @@
+package org.diretto.api.client.main.feed;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.diretto.api.client.main.feed.atom.FallbackCrawler;
+import org.diretto.api.client.main.feed.dispatch.DaemonThreadFactory;
+
+import com.sun.syndication.feed.atom.Feed;
+
+/**
+ * This class represents a {@code CrawlScheduler}, which executes the fallback
+ * crawls of one {@link Feed} on a dedicated {@code Thread}, so that a crawl
+ * never blocks the {@code Thread} which has received the triggering
+ * {@code Feed} update. <br/><br/>
+ * 
+ * The crawls of the {@code Feed} are executed one after another. Requests which
+ * arrive while a crawl is pending are coalesced into that crawl, since it
+ * covers all entries up to the latest one anyway. A request which arrives while
+ * a crawl is running results in one more crawl afterwards.
+ * 
+ * @author Tobias Schlecht
+ * 
+ * @see FallbackCrawler
+ */
+final class CrawlScheduler
+{
+	private final Runnable crawlTask;
+	private final ExecutorService executor;
+
+	private final AtomicBoolean pending = new AtomicBoolean(false);
+
+	private final Runnable runTask = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			pending.set(false);
+
+			try
+			{
+				crawlTask.run();
+			}
+			catch(RuntimeException e)
+			{
+				e.printStackTrace();
+			}
+		}
+	};
+
+	/**
+	 * Constructs a {@link CrawlScheduler}.
+	 * 
+	 * @param feedType The {@code FeedType} of the {@code Feed}
+	 * @param crawlTask The task which crawls the {@code Feed}
+	 */
+	CrawlScheduler(FeedType feedType, Runnable crawlTask)
+	{
+		this.crawlTask = crawlTask;
+
+		executor = Executors.newSingleThreadExecutor(new DaemonThreadFactory("FeedService-Crawler-" + feedType.getFeedName() + "-"));
+	}
+
+	/**
+	 * Requests a crawl of the {@link Feed}, unless a crawl is already pending.
+	 * This method never blocks.
+	 */
+	void request()
+	{
+		if(pending.compareAndSet(false, true))
+		{
+			executor.execute(runTask);
+		}
+	}
+}
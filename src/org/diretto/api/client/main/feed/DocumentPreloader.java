@@ -0,0 +1,282 @@
+package org.diretto.api.client.main.feed;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.configuration.XMLConfiguration;
+import org.diretto.api.client.base.types.LoadType;
+import org.diretto.api.client.main.core.CoreService;
+import org.diretto.api.client.main.core.entities.Document;
+import org.diretto.api.client.main.core.entities.DocumentID;
+import org.diretto.api.client.main.feed.dispatch.BatchWindow;
+import org.diretto.api.client.main.feed.dispatch.DaemonThreadFactory;
+import org.diretto.api.client.main.feed.dispatch.Dispatcher;
+
+/**
+ * This class represents a {@code DocumentPreloader}, which warms the cache of
+ * the {@link CoreService} with new {@link Document}s. <br/><br/>
+ * 
+ * The {@link DocumentID}s are collected within a size and time bounded window
+ * and loaded in batches by a fixed number of {@code Thread}s.
+ * {@code DocumentID}s which are currently loaded or which have been loaded
+ * recently are skipped. The parent {@code Document}s of new {@code Attachment}s
+ * or {@code Comment}s are reloaded even if they have been loaded recently,
+ * because the cached {@code Document} does not contain the new child yet. If
+ * the queue of the loading {@code Thread}s is full, the batch is discarded,
+ * since preloading is only an optimization.
+ * 
+ * @author Tobias Schlecht
+ */
+final class DocumentPreloader
+{
+	private final CoreService coreService;
+	private final int recentCapacity;
+
+	private final BatchWindow<DocumentID> batchWindow;
+	private final ThreadPoolExecutor loader;
+
+	private final Set<DocumentID> inFlightDocumentIDs = new HashSet<DocumentID>();
+	private final Map<DocumentID, Boolean> recentDocumentIDs;
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong loadCount = new AtomicLong();
+	private final AtomicLong totalLoadTime = new AtomicLong();
+
+	/**
+	 * Constructs a {@link DocumentPreloader}.
+	 * 
+	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 * @param coreService The {@code CoreService} whose cache should be warmed
+	 * @param dispatcher The {@code Dispatcher} which is used for the timing
+	 */
+	DocumentPreloader(XMLConfiguration xmlConfiguration, CoreService coreService, Dispatcher dispatcher)
+	{
+		this.coreService = coreService;
+
+		recentCapacity = xmlConfiguration.getInt("core-service-cache/preloader/recent-capacity");
+
+		int maxBatchSize = xmlConfiguration.getInt("core-service-cache/preloader/max-batch-size");
+		long maxDelay = xmlConfiguration.getLong("core-service-cache/preloader/max-delay");
+		int maxConcurrentLoads = xmlConfiguration.getInt("core-service-cache/preloader/max-concurrent-loads");
+		int queueCapacity = xmlConfiguration.getInt("core-service-cache/preloader/queue-capacity");
+
+		recentDocumentIDs = new LinkedHashMap<DocumentID, Boolean>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<DocumentID, Boolean> eldest)
+			{
+				return size() > recentCapacity;
+			}
+		};
+
+		batchWindow = new BatchWindow<DocumentID>(dispatcher, maxBatchSize, maxDelay)
+		{
+			@Override
+			protected void onBatch(List<DocumentID> batch)
+			{
+				loadAsynchronously(batch);
+			}
+		};
+
+		loader = new ThreadPoolExecutor(maxConcurrentLoads, maxConcurrentLoads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(queueCapacity), new DaemonThreadFactory("FeedService-Preloader-"), new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	/**
+	 * Preloads the {@link Document}s with the given {@link DocumentID}s
+	 * asynchronously.
+	 * 
+	 * @param documentIDs The {@code DocumentID}s
+	 * @param childAdded {@code true} if the {@code Document}s are preloaded
+	 *        because a child has been added, so that they have to be reloaded
+	 *        even if they have been loaded recently
+	 */
+	void preload(List<DocumentID> documentIDs, boolean childAdded)
+	{
+		List<DocumentID> newDocumentIDs = acquire(documentIDs, childAdded);
+
+		if(!newDocumentIDs.isEmpty())
+		{
+			batchWindow.add(newDocumentIDs);
+		}
+	}
+
+	/**
+	 * Loads the {@link Document}s with the given {@link DocumentID}s
+	 * synchronously by the calling {@code Thread}. {@code DocumentID}s which
+	 * are currently loaded by another {@code Thread} or which have been loaded
+	 * recently (unless a child has been added) are skipped.
+	 * 
+	 * @param documentIDs The {@code DocumentID}s
+	 * @param childAdded {@code true} if the {@code Document}s are loaded
+	 *        because a child has been added, so that they have to be reloaded
+	 *        even if they have been loaded recently
+	 */
+	void load(List<DocumentID> documentIDs, boolean childAdded)
+	{
+		List<DocumentID> newDocumentIDs = acquire(documentIDs, childAdded);
+
+		if(!newDocumentIDs.isEmpty())
+		{
+			loadBatch(newDocumentIDs);
+		}
+	}
+
+	/**
+	 * Returns the number of {@link DocumentID}s which have been skipped,
+	 * because they were currently loaded or had been loaded recently.
+	 * 
+	 * @return The number of hits
+	 */
+	long getHitCount()
+	{
+		return hitCount.get();
+	}
+
+	/**
+	 * Returns the number of {@link DocumentID}s which have been scheduled for
+	 * loading.
+	 * 
+	 * @return The number of misses
+	 */
+	long getMissCount()
+	{
+		return missCount.get();
+	}
+
+	/**
+	 * Returns the average duration of a batch load.
+	 * 
+	 * @return The average duration in milliseconds or {@code 0} if no batch has
+	 *         been loaded yet
+	 */
+	long getAverageLoadTime()
+	{
+		long count = loadCount.get();
+
+		if(count == 0)
+		{
+			return 0;
+		}
+
+		return totalLoadTime.get() / count;
+	}
+
+	/**
+	 * Marks those of the given {@link DocumentID}s as in flight which are
+	 * neither currently loaded nor have been loaded recently. If a child has
+	 * been added, the {@code DocumentID}s which have been loaded recently are
+	 * not skipped.
+	 * 
+	 * @param documentIDs The {@code DocumentID}s
+	 * @param childAdded {@code true} if a child of the {@code Document}s has
+	 *        been added
+	 * @return The {@code DocumentID}s which have to be loaded
+	 */
+	private synchronized List<DocumentID> acquire(List<DocumentID> documentIDs, boolean childAdded)
+	{
+		List<DocumentID> newDocumentIDs = new ArrayList<DocumentID>(documentIDs.size());
+
+		for(DocumentID documentID : documentIDs)
+		{
+			if((!childAdded && recentDocumentIDs.containsKey(documentID)) || !inFlightDocumentIDs.add(documentID))
+			{
+				hitCount.incrementAndGet();
+			}
+			else
+			{
+				missCount.incrementAndGet();
+
+				newDocumentIDs.add(documentID);
+			}
+		}
+
+		return newDocumentIDs;
+	}
+
+	/**
+	 * Releases the given in flight {@link DocumentID}s.
+	 * 
+	 * @param documentIDs The {@code DocumentID}s
+	 * @param loaded Whether the corresponding {@link Document}s have been
+	 *        loaded
+	 */
+	private synchronized void release(List<DocumentID> documentIDs, boolean loaded)
+	{
+		for(DocumentID documentID : documentIDs)
+		{
+			inFlightDocumentIDs.remove(documentID);
+
+			if(loaded)
+			{
+				recentDocumentIDs.put(documentID, Boolean.TRUE);
+			}
+		}
+	}
+
+	/**
+	 * Loads the given batch of in flight {@link DocumentID}s by the calling
+	 * {@code Thread} and releases them afterwards.
+	 * 
+	 * @param batch The {@code DocumentID}s
+	 */
+	private void loadBatch(List<DocumentID> batch)
+	{
+		boolean loaded = false;
+		long startTime = System.currentTimeMillis();
+
+		try
+		{
+			coreService.getDocumentsByIDs(batch, LoadType.COMPLETE, false);
+
+			loaded = true;
+		}
+		catch(RuntimeException e)
+		{
+			e.printStackTrace();
+		}
+		finally
+		{
+			totalLoadTime.addAndGet(System.currentTimeMillis() - startTime);
+			loadCount.incrementAndGet();
+
+			release(batch, loaded);
+		}
+	}
+
+	/**
+	 * Loads the given batch of in flight {@link DocumentID}s by one of the
+	 * loading {@code Thread}s.
+	 * 
+	 * @param batch The {@code DocumentID}s
+	 */
+	private void loadAsynchronously(final List<DocumentID> batch)
+	{
+		try
+		{
+			loader.execute(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					loadBatch(batch);
+				}
+			});
+		}
+		catch(RejectedExecutionException e)
+		{
+			release(batch, false);
+		}
+	}
+}
@@ -0,0 +1,197 @@
+package org.diretto.api.client.main.feed;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.configuration.XMLConfiguration;
+import org.diretto.api.client.main.core.entities.Attachment;
+import org.diretto.api.client.main.core.entities.AttachmentID;
+import org.diretto.api.client.main.core.entities.Comment;
+import org.diretto.api.client.main.core.entities.CommentID;
+import org.diretto.api.client.main.core.entities.CoreServiceEntityIDFactory;
+import org.diretto.api.client.main.core.entities.Document;
+import org.diretto.api.client.main.core.entities.DocumentID;
+import org.diretto.api.client.util.URLTransformationUtils;
+
+/**
+ * This class represents an {@code EntityIDCache}, which returns canonical
+ * instances of {@link DocumentID}s, {@link AttachmentID}s and
+ * {@link CommentID}s for the raw {@code ID}s of the {@code Feed} entries.
+ * <br/><br/>
+ * 
+ * The parent {@code DocumentID} of an {@code AttachmentID} or a
+ * {@code CommentID} is taken from the same cache, so that all entity
+ * {@code ID}s which refer to the same {@link Document} share one
+ * {@code DocumentID} instance. Each kind of entity {@code ID} is held in a
+ * separate map, which is bounded by the configured capacity and evicts the
+ * least recently used entity {@code ID}s.
+ * 
+ * @author Tobias Schlecht
+ */
+final class EntityIDCache
+{
+	private final Map<String, DocumentID> documentIDs;
+	private final Map<String, SubEntityIDs<AttachmentID>> attachmentIDs;
+	private final Map<String, SubEntityIDs<CommentID>> commentIDs;
+
+	/**
+	 * Constructs an {@link EntityIDCache}.
+	 * 
+	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 */
+	EntityIDCache(XMLConfiguration xmlConfiguration)
+	{
+		int capacity = xmlConfiguration.getInt("entity-id-cache/capacity");
+
+		documentIDs = EntityIDCache.<DocumentID> createMap(capacity);
+		attachmentIDs = EntityIDCache.<SubEntityIDs<AttachmentID>> createMap(capacity);
+		commentIDs = EntityIDCache.<SubEntityIDs<CommentID>> createMap(capacity);
+	}
+
+	/**
+	 * Creates a map which is bounded by the given capacity and evicts the least
+	 * recently used entries.
+	 * 
+	 * @param <T> The type of the values
+	 * @param capacity The maximum number of entries
+	 * @return The map
+	 */
+	private static <T> Map<String, T> createMap(final int capacity)
+	{
+		return new LinkedHashMap<String, T>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, T> eldest)
+			{
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns the canonical {@link DocumentID} for the given {@code ID} of a
+	 * {@link Document}.
+	 * 
+	 * @param documentIDString The {@code ID} of the {@code Document}
+	 * @return The {@code DocumentID}
+	 */
+	DocumentID getDocumentID(String documentIDString)
+	{
+		synchronized(documentIDs)
+		{
+			DocumentID documentID = documentIDs.get(documentIDString);
+
+			if(documentID == null)
+			{
+				documentID = CoreServiceEntityIDFactory.getDocumentIDInstance(documentIDString);
+
+				documentIDs.put(documentIDString, documentID);
+			}
+
+			return documentID;
+		}
+	}
+
+	/**
+	 * Returns the canonical {@link AttachmentID} for the given {@code ID} of an
+	 * {@link Attachment} together with the canonical {@link DocumentID} of its
+	 * parent {@link Document}.
+	 * 
+	 * @param attachmentIDString The {@code ID} of the {@code Attachment}
+	 * @return The {@code SubEntityIDs} of the {@code Attachment}
+	 */
+	SubEntityIDs<AttachmentID> getAttachmentIDs(String attachmentIDString)
+	{
+		synchronized(attachmentIDs)
+		{
+			SubEntityIDs<AttachmentID> subEntityIDs = attachmentIDs.get(attachmentIDString);
+
+			if(subEntityIDs == null)
+			{
+				DocumentID documentID = getDocumentID(URLTransformationUtils.removeSubEntityPart(attachmentIDString));
+
+				subEntityIDs = new SubEntityIDs<AttachmentID>(CoreServiceEntityIDFactory.getAttachmentIDInstance(attachmentIDString, documentID, documentID), documentID);
+
+				attachmentIDs.put(attachmentIDString, subEntityIDs);
+			}
+
+			return subEntityIDs;
+		}
+	}
+
+	/**
+	 * Returns the canonical {@link CommentID} for the given {@code ID} of a
+	 * {@link Comment} together with the canonical {@link DocumentID} of its
+	 * parent {@link Document}.
+	 * 
+	 * @param commentIDString The {@code ID} of the {@code Comment}
+	 * @return The {@code SubEntityIDs} of the {@code Comment}
+	 */
+	SubEntityIDs<CommentID> getCommentIDs(String commentIDString)
+	{
+		synchronized(commentIDs)
+		{
+			SubEntityIDs<CommentID> subEntityIDs = commentIDs.get(commentIDString);
+
+			if(subEntityIDs == null)
+			{
+				DocumentID documentID = getDocumentID(URLTransformationUtils.removeSubEntityPart(commentIDString));
+
+				subEntityIDs = new SubEntityIDs<CommentID>(CoreServiceEntityIDFactory.getCommentIDInstance(commentIDString, documentID, documentID), documentID);
+
+				commentIDs.put(commentIDString, subEntityIDs);
+			}
+
+			return subEntityIDs;
+		}
+	}
+
+	/**
+	 * This class holds the canonical {@code ID} of a sub entity together with
+	 * the canonical {@link DocumentID} of its parent {@link Document}.
+	 * 
+	 * @author Tobias Schlecht
+	 * 
+	 * @param <T> The type of the sub entity {@code ID}
+	 */
+	static final class SubEntityIDs<T>
+	{
+		private final T subEntityID;
+		private final DocumentID documentID;
+
+		/**
+		 * Constructs a {@link SubEntityIDs} object.
+		 * 
+		 * @param subEntityID The {@code ID} of the sub entity
+		 * @param documentID The {@code DocumentID} of the parent
+		 *        {@code Document}
+		 */
+		private SubEntityIDs(T subEntityID, DocumentID documentID)
+		{
+			this.subEntityID = subEntityID;
+			this.documentID = documentID;
+		}
+
+		/**
+		 * Returns the {@code ID} of the sub entity.
+		 * 
+		 * @return The {@code ID} of the sub entity
+		 */
+		T getSubEntityID()
+		{
+			return subEntityID;
+		}
+
+		/**
+		 * Returns the {@link DocumentID} of the parent {@link Document}.
+		 * 
+		 * @return The {@code DocumentID} of the parent {@code Document}
+		 */
+		DocumentID getDocumentID()
+		{
+			return documentID;
+		}
+	}
+}
@@ -1,21 +1,57 @@
 package org.diretto.api.client.main.feed;
 
+import java.util.concurrent.Future;
+
+import org.diretto.api.client.main.feed.event.AttachmentBatchListener;
 import org.diretto.api.client.main.feed.event.AttachmentListener;
+import org.diretto.api.client.main.feed.event.CommentBatchListener;
 import org.diretto.api.client.main.feed.event.CommentListener;
+import org.diretto.api.client.main.feed.event.DocumentBatchListener;
 import org.diretto.api.client.main.feed.event.DocumentListener;
 import org.diretto.api.client.main.feed.event.Listener;
+import org.diretto.api.client.main.feed.subscriber.SubscriptionState;
 import org.diretto.api.client.service.Service;
 
 /**
  * This interface represents a {@code FeedService}. <br/><br/>
  * 
  * The {@code FeedService} provides the bulk of the platform functionalities in
- * respect of the {@code Feed API}.
+ * respect of the {@code Feed API}. <br/><br/>
+ * 
+ * <i>Delivery of the events:</i> The IDs of the new resources are delivered to
+ * the {@link Listener}s in a chronological order on a best-effort basis, one by
+ * one as well as within and across the batches of the batch {@code Listener}s.
+ * Pushed updates which arrive out of order are reordered within the configured
+ * reorder window and the pages of a fallback crawl are delivered starting with
+ * the oldest page. However, IDs which arrive later than the reorder window,
+ * which are crawled while further updates are pushed or which are recovered
+ * after an incomplete crawl may be delivered out of order. Each
+ * {@code Listener} has a bounded mailbox: When it is full, the oldest
+ * ({@code drop-oldest}) or the newest ({@code drop-newest}) events are dropped,
+ * depending on the configured overflow policy.
  * 
  * @author Tobias Schlecht
  */
 public interface FeedService extends Service
 {
+	/**
+	 * Returns the current {@link StartupState} of the {@link FeedService}.
+	 * 
+	 * @return The {@code StartupState}
+	 */
+	StartupState getStartupState();
+
+	/**
+	 * Returns a {@link Future}, which is completed as soon as the startup of
+	 * the {@link FeedService} has finished (i.e. as soon as the {@code Feed}s
+	 * have been subscribed). If the asynchronous startup is not activated, the
+	 * {@code Future} is already completed when the {@code FeedService} is
+	 * returned.
+	 * 
+	 * @return The {@code Future} of the final {@code StartupState}
+	 */
+	Future<StartupState> getStartupFuture();
+
 	/**
 	 * Adds the given {@link DocumentListener}.
 	 * 
@@ -37,10 +73,106 @@ public interface FeedService extends Service
 	 */
 	void addCommentListener(CommentListener commentListener);
 
+	/**
+	 * Adds the given {@link DocumentBatchListener}.
+	 * 
+	 * @param documentBatchListener A {@code DocumentBatchListener}
+	 */
+	void addDocumentBatchListener(DocumentBatchListener documentBatchListener);
+
+	/**
+	 * Adds the given {@link AttachmentBatchListener}.
+	 * 
+	 * @param attachmentBatchListener An {@code AttachmentBatchListener}
+	 */
+	void addAttachmentBatchListener(AttachmentBatchListener attachmentBatchListener);
+
+	/**
+	 * Adds the given {@link CommentBatchListener}.
+	 * 
+	 * @param commentBatchListener A {@code CommentBatchListener}
+	 */
+	void addCommentBatchListener(CommentBatchListener commentBatchListener);
+
 	/**
 	 * Removes the given {@link Listener}.
 	 * 
 	 * @param listener A {@code Listener}
 	 */
 	void removeListener(Listener listener);
+
+	/**
+	 * Returns the number of events which are waiting in the mailbox of the
+	 * given {@link Listener} for their delivery.
+	 * 
+	 * @param listener A {@code Listener}
+	 * @return The number of pending events or {@code -1} if the
+	 *         {@code Listener} has not been added
+	 */
+	int getMailboxDepth(Listener listener);
+
+	/**
+	 * Returns the lag of the given {@link Listener} in milliseconds. This is
+	 * the time the oldest event which has not yet been completely delivered to
+	 * the {@code Listener} has spent in its mailbox.
+	 * 
+	 * @param listener A {@code Listener}
+	 * @return The lag in milliseconds or {@code -1} if the {@code Listener} has
+	 *         not been added
+	 */
+	long getMailboxLag(Listener listener);
+
+	/**
+	 * Returns the number of entries of the {@code Feed} of the given
+	 * {@link FeedType} which have been suppressed, because they had already
+	 * been handled before (e.g. because a hub has redelivered them).
+	 * 
+	 * @param feedType A {@code FeedType}
+	 * @return The number of suppressed duplicates
+	 */
+	long getDuplicateEntryCount(FeedType feedType);
+
+	/**
+	 * Returns the number of distinct entries of the {@code Feed} of the given
+	 * {@link FeedType} which have been handled.
+	 * 
+	 * @param feedType A {@code FeedType}
+	 * @return The number of distinct entries
+	 */
+	long getDistinctEntryCount(FeedType feedType);
+
+	/**
+	 * Returns the {@link SubscriptionState} of the {@code Feed} of the given
+	 * {@link FeedType} at its hub. If the {@code Feed} is polled instead of
+	 * subscribed, the state is {@code UNSUBSCRIBED}.
+	 * 
+	 * @param feedType A {@code FeedType}
+	 * @return The {@code SubscriptionState}
+	 */
+	SubscriptionState getSubscriptionState(FeedType feedType);
+
+	/**
+	 * Returns the number of new {@code Document}s which have not been preloaded
+	 * into the cache of the {@code CoreService}, because they were already
+	 * being preloaded or had been preloaded recently.
+	 * 
+	 * @return The number of preload hits
+	 */
+	long getPreloadHitCount();
+
+	/**
+	 * Returns the number of new {@code Document}s which have been scheduled for
+	 * preloading into the cache of the {@code CoreService}.
+	 * 
+	 * @return The number of preload misses
+	 */
+	long getPreloadMissCount();
+
+	/**
+	 * Returns the average duration of a batch preload of new {@code Document}s
+	 * into the cache of the {@code CoreService}.
+	 * 
+	 * @return The average duration in milliseconds
+	 */
+	long getAveragePreloadTime();
 }
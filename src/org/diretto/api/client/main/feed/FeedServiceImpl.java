@@ -1,51 +1,67 @@
 package org.diretto.api.client.main.feed;
 
-import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Stack;
-import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.commons.configuration.XMLConfiguration;
 import org.diretto.api.client.JavaClient;
 import org.diretto.api.client.JavaClientImpl;
 import org.diretto.api.client.base.annotations.InvocationLimited;
-import org.diretto.api.client.base.entities.Entity;
-import org.diretto.api.client.base.entities.EntityID;
-import org.diretto.api.client.base.types.LoadType;
 import org.diretto.api.client.main.core.CoreService;
 import org.diretto.api.client.main.core.entities.Attachment;
 import org.diretto.api.client.main.core.entities.AttachmentID;
 import org.diretto.api.client.main.core.entities.Comment;
 import org.diretto.api.client.main.core.entities.CommentID;
-import org.diretto.api.client.main.core.entities.CoreServiceEntityIDFactory;
 import org.diretto.api.client.main.core.entities.Document;
 import org.diretto.api.client.main.core.entities.DocumentID;
+import org.diretto.api.client.main.feed.EntityIDCache.SubEntityIDs;
+import org.diretto.api.client.main.feed.atom.CrawlResult;
+import org.diretto.api.client.main.feed.atom.FallbackCrawler;
+import org.diretto.api.client.main.feed.atom.FallbackPageHandler;
+import org.diretto.api.client.main.feed.atom.FeedEntry;
+import org.diretto.api.client.main.feed.atom.FeedUpdate;
+import org.diretto.api.client.main.feed.atom.ReorderBuffer;
+import org.diretto.api.client.main.feed.atom.SeenEntryFilter;
 import org.diretto.api.client.main.feed.binding.FeedServiceInstanceDataResource;
+import org.diretto.api.client.main.feed.dispatch.BatchWindow;
+import org.diretto.api.client.main.feed.dispatch.DaemonThreadFactory;
+import org.diretto.api.client.main.feed.dispatch.Dispatcher;
+import org.diretto.api.client.main.feed.dispatch.ListenerMailbox;
+import org.diretto.api.client.main.feed.dispatch.ListenerRegistry;
+import org.diretto.api.client.main.feed.dispatch.Notification;
+import org.diretto.api.client.main.feed.event.AttachmentBatchListener;
 import org.diretto.api.client.main.feed.event.AttachmentListener;
+import org.diretto.api.client.main.feed.event.CommentBatchListener;
 import org.diretto.api.client.main.feed.event.CommentListener;
+import org.diretto.api.client.main.feed.event.DocumentBatchListener;
 import org.diretto.api.client.main.feed.event.DocumentListener;
 import org.diretto.api.client.main.feed.event.Listener;
+import org.diretto.api.client.main.feed.http.FeedHttpClient;
+import org.diretto.api.client.main.feed.management.MBeanRegistrar;
 import org.diretto.api.client.main.feed.subscriber.FeedHandler;
+import org.diretto.api.client.main.feed.subscriber.FeedPoller;
+import org.diretto.api.client.main.feed.subscriber.HubDiscovery;
 import org.diretto.api.client.main.feed.subscriber.Subscriber;
+import org.diretto.api.client.main.feed.subscriber.SubscriptionState;
 import org.diretto.api.client.service.AbstractService;
 import org.diretto.api.client.util.InvocationUtils;
 import org.diretto.api.client.util.URLTransformationUtils;
 import org.joda.time.DateTime;
 import org.restlet.Client;
-import org.restlet.data.MediaType;
-import org.restlet.data.Reference;
-import org.restlet.ext.atom.Link;
-import org.restlet.representation.Representation;
 import org.restlet.resource.ClientResource;
 
-import com.google.pubsubhubbub.java.subscriber.Discovery;
-import com.sun.syndication.feed.atom.Entry;
 import com.sun.syndication.feed.atom.Feed;
 
 /**
@@ -53,32 +69,69 @@ import com.sun.syndication.feed.atom.Feed;
  * <br/><br/>
  * 
  * <i>Annotation:</i> The {@code PubSubHubbub} protocol is used for the
- * implementation.
+ * implementation. Alternatively the {@code Feed}s can be polled with
+ * conditional HTTP GET requests.
  * 
  * @author Tobias Schlecht
  */
-public final class FeedServiceImpl extends AbstractService implements FeedService, Comparator<Entry>
+public final class FeedServiceImpl extends AbstractService implements FeedService
 {
+	private static final String POLLING_TRANSPORT = "polling";
+
 	private final CoreService coreService;
 	private final boolean cacheActivated;
 	private final XMLConfiguration xmlConfiguration;
 	private final boolean preloadNewDocuments;
+	private final PreloadPolicy attachmentPreloadPolicy;
+	private final PreloadPolicy commentPreloadPolicy;
 	private final boolean hubFailureFallbackActivated;
+	private final Dispatcher dispatcher;
+	private final DocumentPreloader documentPreloader;
+	private final EntityIDCache entityIDCache;
+
+	private final Client restletClient;
+	private final FeedHttpClient feedHttpClient;
+	private final FallbackCrawler fallbackCrawler;
+	private volatile int paginationSize = Integer.MAX_VALUE;
+	private volatile Subscriber subscriber = null;
+
+	private final long startupStepTimeout;
+	private final FutureTask<StartupState> startup;
+	private volatile StartupState startupState = StartupState.STARTING;
+
+	private final ListenerRegistry<DocumentListener> documentListeners;
+	private final ListenerRegistry<AttachmentListener> attachmentListeners;
+	private final ListenerRegistry<CommentListener> commentListeners;
+
+	private final ListenerRegistry<DocumentBatchListener> documentBatchListeners;
+	private final ListenerRegistry<AttachmentBatchListener> attachmentBatchListeners;
+	private final ListenerRegistry<CommentBatchListener> commentBatchListeners;
+
+	private final BatchWindow<DocumentID> documentBatchWindow;
+	private final BatchWindow<AttachmentID> attachmentBatchWindow;
+	private final BatchWindow<CommentID> commentBatchWindow;
+
+	private final SeenEntryFilter documentEntryFilter;
+	private final SeenEntryFilter attachmentEntryFilter;
+	private final SeenEntryFilter commentEntryFilter;
+
+	private final ReorderBuffer documentReorderBuffer;
+	private final ReorderBuffer attachmentReorderBuffer;
+	private final ReorderBuffer commentReorderBuffer;
 
-	private Client restletClient;
-	private int paginationSize;
+	private final FeedStatistics documentStatistics;
+	private final FeedStatistics attachmentStatistics;
+	private final FeedStatistics commentStatistics;
 
-	private final List<DocumentListener> documentListeners = new Vector<DocumentListener>();
-	private final List<AttachmentListener> attachmentListeners = new Vector<AttachmentListener>();
-	private final List<CommentListener> commentListeners = new Vector<CommentListener>();
+	private final CheckpointStore checkpointStore;
 
-	private DocumentID latestDocumentID = null;
-	private AttachmentID latestAttachmentID = null;
-	private CommentID latestCommentID = null;
+	private final CrawlScheduler documentCrawlScheduler;
+	private final CrawlScheduler attachmentCrawlScheduler;
+	private final CrawlScheduler commentCrawlScheduler;
 
 	private final DateTime initTime;
 
-	private final Map<String, String> feedURLs = new HashMap<String, String>();
+	private final Map<String, String> feedURLs = new ConcurrentHashMap<String, String>();
 
 	/**
 	 * The constructor is {@code private} to have strict control what instances
@@ -89,7 +142,7 @@ public final class FeedServiceImpl extends AbstractService implements FeedServic
 	 * @param serviceURL The service {@code URL}
 	 * @param javaClient The corresponding {@code JavaClient}
 	 */
-	private FeedServiceImpl(URL serviceURL, JavaClient javaClient)
+	private FeedServiceImpl(final URL serviceURL, JavaClient javaClient)
 	{
 		super(FeedServiceID.INSTANCE, serviceURL, javaClient);
 
@@ -101,33 +154,173 @@ public final class FeedServiceImpl extends AbstractService implements FeedServic
 		xmlConfiguration = FeedServiceID.INSTANCE.getXMLConfiguration();
 
 		preloadNewDocuments = xmlConfiguration.getBoolean("core-service-cache/preload-new-documents");
+		attachmentPreloadPolicy = PreloadPolicy.fromConfigValue(xmlConfiguration.getString("core-service-cache/attachment-preload-policy"));
+		commentPreloadPolicy = PreloadPolicy.fromConfigValue(xmlConfiguration.getString("core-service-cache/comment-preload-policy"));
 		hubFailureFallbackActivated = xmlConfiguration.getBoolean("pubsubhubbub/hub-failure-fallback");
 
-		if(hubFailureFallbackActivated)
+		dispatcher = new Dispatcher(xmlConfiguration);
+		documentPreloader = new DocumentPreloader(xmlConfiguration, coreService, dispatcher);
+		entityIDCache = new EntityIDCache(xmlConfiguration);
+
+		documentListeners = new ListenerRegistry<DocumentListener>(xmlConfiguration, dispatcher);
+		attachmentListeners = new ListenerRegistry<AttachmentListener>(xmlConfiguration, dispatcher);
+		commentListeners = new ListenerRegistry<CommentListener>(xmlConfiguration, dispatcher);
+
+		documentBatchListeners = new ListenerRegistry<DocumentBatchListener>(xmlConfiguration, dispatcher);
+		attachmentBatchListeners = new ListenerRegistry<AttachmentBatchListener>(xmlConfiguration, dispatcher);
+		commentBatchListeners = new ListenerRegistry<CommentBatchListener>(xmlConfiguration, dispatcher);
+
+		int seenEntryFilterCapacity = xmlConfiguration.getInt("pubsubhubbub/seen-entry-filter/capacity");
+
+		documentEntryFilter = new SeenEntryFilter(seenEntryFilterCapacity);
+		attachmentEntryFilter = new SeenEntryFilter(seenEntryFilterCapacity);
+		commentEntryFilter = new SeenEntryFilter(seenEntryFilterCapacity);
+
+		documentBatchWindow = new BatchWindow<DocumentID>(xmlConfiguration, dispatcher)
 		{
-			restletClient = ((JavaClientImpl) javaClient).getRestletClient();
+			@Override
+			protected void onBatch(List<DocumentID> batch)
+			{
+				final List<DocumentID> documentIDs = Collections.unmodifiableList(batch);
 
-			ClientResource clientResource = new ClientResource(serviceURL.toExternalForm());
-			clientResource.setNext(restletClient);
-			FeedServiceInstanceDataResource feedServiceInstanceDataResource = clientResource.get(FeedServiceInstanceDataResource.class);
+				documentBatchListeners.post(new Notification<DocumentBatchListener>()
+				{
+					@Override
+					public void deliverTo(DocumentBatchListener documentBatchListener)
+					{
+						documentBatchListener.onDocumentsAdded(documentIDs);
+					}
+				});
+			}
+		};
 
-			System.out.println("[FeedService FeedServiceImpl] " + serviceURL.toExternalForm());
+		attachmentBatchWindow = new BatchWindow<AttachmentID>(xmlConfiguration, dispatcher)
+		{
+			@Override
+			protected void onBatch(List<AttachmentID> batch)
+			{
+				final List<AttachmentID> attachmentIDs = Collections.unmodifiableList(batch);
 
-			paginationSize = feedServiceInstanceDataResource.getParameters().getPaginationSize();
-		}
+				attachmentBatchListeners.post(new Notification<AttachmentBatchListener>()
+				{
+					@Override
+					public void deliverTo(AttachmentBatchListener attachmentBatchListener)
+					{
+						attachmentBatchListener.onAttachmentsAdded(attachmentIDs);
+					}
+				});
+			}
+		};
 
-		FeedHandler feedHandler = new FeedHandler()
+		commentBatchWindow = new BatchWindow<CommentID>(xmlConfiguration, dispatcher)
 		{
 			@Override
-			public void onFeedUpdate(String feedURL, Feed feed)
+			protected void onBatch(List<CommentID> batch)
 			{
-				@SuppressWarnings("unchecked")
-				List<Entry> entries = feed.getEntries();
+				final List<CommentID> commentIDs = Collections.unmodifiableList(batch);
 
-				if(hubFailureFallbackActivated && entries.size() < paginationSize)
+				commentBatchListeners.post(new Notification<CommentBatchListener>()
 				{
-					sortEntries(entries);
-				}
+					@Override
+					public void deliverTo(CommentBatchListener commentBatchListener)
+					{
+						commentBatchListener.onCommentsAdded(commentIDs);
+					}
+				});
+			}
+		};
+
+		checkpointStore = new CheckpointStore(xmlConfiguration, serviceURL, dispatcher);
+
+		long reorderWindow = xmlConfiguration.getLong("pubsubhubbub/reorder-window");
+		int reorderCapacity = xmlConfiguration.getInt("pubsubhubbub/reorder-capacity");
+
+		documentReorderBuffer = new ReorderBuffer(reorderWindow, reorderCapacity, FeedType.DOCUMENT.getFeedName())
+		{
+			@Override
+			protected void onRelease(List<FeedEntry> entries)
+			{
+				long startTime = System.nanoTime();
+
+				handleDocumentEntries(entries);
+
+				documentStatistics.recordHandling(startTime);
+
+				checkpointStore.advance(FeedType.DOCUMENT, entries.get(0));
+			}
+		};
+
+		attachmentReorderBuffer = new ReorderBuffer(reorderWindow, reorderCapacity, FeedType.ATTACHMENT.getFeedName())
+		{
+			@Override
+			protected void onRelease(List<FeedEntry> entries)
+			{
+				long startTime = System.nanoTime();
+
+				handleAttachmentEntries(entries);
+
+				attachmentStatistics.recordHandling(startTime);
+
+				checkpointStore.advance(FeedType.ATTACHMENT, entries.get(0));
+			}
+		};
+
+		commentReorderBuffer = new ReorderBuffer(reorderWindow, reorderCapacity, FeedType.COMMENT.getFeedName())
+		{
+			@Override
+			protected void onRelease(List<FeedEntry> entries)
+			{
+				long startTime = System.nanoTime();
+
+				handleCommentEntries(entries);
+
+				commentStatistics.recordHandling(startTime);
+
+				checkpointStore.advance(FeedType.COMMENT, entries.get(0));
+			}
+		};
+
+		restletClient = ((JavaClientImpl) javaClient).getRestletClient();
+		feedHttpClient = new FeedHttpClient(xmlConfiguration);
+		fallbackCrawler = new FallbackCrawler(xmlConfiguration, feedHttpClient);
+
+		documentCrawlScheduler = new CrawlScheduler(FeedType.DOCUMENT, new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				crawlDocumentFeed();
+			}
+		});
+
+		attachmentCrawlScheduler = new CrawlScheduler(FeedType.ATTACHMENT, new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				crawlAttachmentFeed();
+			}
+		});
+
+		commentCrawlScheduler = new CrawlScheduler(FeedType.COMMENT, new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				crawlCommentFeed();
+			}
+		});
+
+		documentStatistics = new FeedStatistics(FeedType.DOCUMENT, documentEntryFilter, documentReorderBuffer, checkpointStore);
+		attachmentStatistics = new FeedStatistics(FeedType.ATTACHMENT, attachmentEntryFilter, attachmentReorderBuffer, checkpointStore);
+		commentStatistics = new FeedStatistics(FeedType.COMMENT, commentEntryFilter, commentReorderBuffer, checkpointStore);
+
+		final FeedHandler feedHandler = new FeedHandler()
+		{
+			@Override
+			public void onFeedUpdate(String feedURL, FeedUpdate feedUpdate)
+			{
+				List<FeedEntry> entries = feedUpdate.getEntries();
 
 				if(feedURL.equals(feedURLs.get("documentFeed")))
 				{
@@ -144,29 +337,54 @@ public final class FeedServiceImpl extends AbstractService implements FeedServic
 			}
 		};
 
-		Subscriber subscriber = Subscriber.getInstance(xmlConfiguration, feedHandler);
-
 		String[] names = xmlConfiguration.getStringArray("feeds/feed/@name");
 		String[] urls = xmlConfiguration.getStringArray("feeds/feed/@url");
 
-		Discovery discovery = new Discovery();
-
-		String feedURL = null;
-
 		for(int i = 0; i < names.length; i++)
 		{
-			feedURL = serviceURL.toExternalForm() + urls[i];
+			feedURLs.put(names[i], serviceURL.toExternalForm() + urls[i]);
+		}
+
+		if(xmlConfiguration.getBoolean("jmx/activated"))
+		{
+			registerMBeans(serviceURL);
+		}
 
-			feedURLs.put(names[i], feedURL);
+		startupStepTimeout = xmlConfiguration.getLong("startup/step-timeout");
 
-			try
-			{
-				subscriber.subscribe(discovery.getHub(feedURL), feedURL);
-			}
-			catch(Exception e)
+		final ExecutorService startupExecutor = Executors.newCachedThreadPool(new DaemonThreadFactory("FeedService-Startup-"));
+
+		startup = new FutureTask<StartupState>(new Callable<StartupState>()
+		{
+			@Override
+			public StartupState call()
 			{
-				e.printStackTrace();
+				try
+				{
+					startupState = start(serviceURL, startupExecutor, feedHandler);
+				}
+				catch(RuntimeException e)
+				{
+					e.printStackTrace();
+
+					startupState = StartupState.FAILED;
+				}
+				finally
+				{
+					startupExecutor.shutdown();
+				}
+
+				return startupState;
 			}
+		});
+
+		if(xmlConfiguration.getBoolean("startup/asynchronous"))
+		{
+			startupExecutor.execute(startup);
+		}
+		else
+		{
+			startup.run();
 		}
 	}
 
@@ -189,389 +407,995 @@ public final class FeedServiceImpl extends AbstractService implements FeedServic
 		return new FeedServiceImpl(serviceURL, javaClient);
 	}
 
-	@Override
-	public synchronized void addDocumentListener(DocumentListener documentListener)
-	{
-		if(!documentListeners.contains(documentListener))
-		{
-			documentListeners.add(documentListener);
-		}
-	}
-
-	@Override
-	public synchronized void addAttachmentListener(AttachmentListener attachmentListener)
-	{
-		if(!attachmentListeners.contains(attachmentListener))
-		{
-			attachmentListeners.add(attachmentListener);
-		}
-	}
-
-	@Override
-	public synchronized void addCommentListener(CommentListener commentListener)
-	{
-		if(!commentListeners.contains(commentListener))
-		{
-			commentListeners.add(commentListener);
-		}
-	}
-
-	@Override
-	public synchronized void removeListener(Listener listener)
-	{
-		if(listener instanceof DocumentListener)
-		{
-			documentListeners.remove(listener);
-		}
-		else if(listener instanceof AttachmentListener)
-		{
-			attachmentListeners.remove(listener);
-		}
-		else if(listener instanceof CommentListener)
-		{
-			commentListeners.remove(listener);
-		}
-	}
-
 	/**
-	 * Handles a {@link Feed} update of the {@link Document} {@code Feed}.
+	 * Executes the network dependent part of the startup: The parameters of the
+	 * service are requested, the {@link Feed}s are subscribed (or polled) and
+	 * afterwards the missed entries are caught up. The watermarks are held back
+	 * from before the subscriptions until the catch-up has ended, so that no
+	 * entry which is published in between is missed and pushed entries do not
+	 * move the watermarks past the gap. Independent steps are executed in
+	 * parallel and each step is limited by the configured timeout.
 	 * 
-	 * @param entries A {@code List} with the {@code Atom} {@code Feed} entries
+	 * @param serviceURL The service {@code URL}
+	 * @param startupExecutor The {@code ExecutorService} which executes the
+	 *        steps
+	 * @param feedHandler The {@code FeedHandler} of the service
+	 * @return The resulting {@code StartupState}
 	 */
-	private synchronized void handleDocumentFeedUpdate(List<Entry> entries)
+	private StartupState start(final URL serviceURL, ExecutorService startupExecutor, final FeedHandler feedHandler)
 	{
-		final List<DocumentID> documentIDs = new Vector<DocumentID>();
+		boolean complete = true;
 
-		if(!hubFailureFallbackActivated || entries.size() < paginationSize)
+		Future<Integer> paginationSizeFuture = null;
+		Future<Subscriber> subscriberFuture = null;
+
+		if(hubFailureFallbackActivated)
 		{
-			for(int i = entries.size() - 1; i >= 0; i--)
+			paginationSizeFuture = startupExecutor.submit(new Callable<Integer>()
 			{
-				final DocumentID documentID = CoreServiceEntityIDFactory.getDocumentIDInstance(entries.get(i).getId());
-
-				documentIDs.add(documentID);
+				@Override
+				public Integer call()
+				{
+					return requestPaginationSize(serviceURL);
+				}
+			});
+		}
 
-				latestDocumentID = documentID;
+		boolean pollingActivated = POLLING_TRANSPORT.equalsIgnoreCase(xmlConfiguration.getString("transport"));
 
-				for(final DocumentListener documentListener : documentListeners)
+		if(!pollingActivated)
+		{
+			subscriberFuture = startupExecutor.submit(new Callable<Subscriber>()
+			{
+				@Override
+				public Subscriber call()
 				{
-					new Thread(new Runnable()
-					{
-						@Override
-						public void run()
-						{
-							documentListener.onDocumentAdded(documentID);
-						}
-					}).start();
+					return createSubscriber(serviceURL, feedHandler);
 				}
-			}
+			});
 		}
-		else
+
+		if(paginationSizeFuture != null)
 		{
-			String latestDocumentIDString = null;
+			Integer size = awaitStartupStep(paginationSizeFuture);
 
-			if(latestDocumentID != null)
+			if(size != null)
 			{
-				latestDocumentIDString = latestDocumentID.toString();
+				paginationSize = size;
 			}
-
-			List<String> documentIDStrings = getHubFailureFallbackEntryIDs(feedURLs.get("documentFeed"), latestDocumentIDString);
-
-			for(int i = documentIDStrings.size() - 1; i >= 0; i--)
+			else
 			{
-				final DocumentID documentID = CoreServiceEntityIDFactory.getDocumentIDInstance(documentIDStrings.get(i));
+				complete = false;
+			}
+		}
 
-				documentIDs.add(documentID);
+		List<FeedType> catchUpFeedTypes = beginCatchUp();
 
-				latestDocumentID = documentID;
+		boolean connected;
+		boolean caughtUp;
 
-				for(final DocumentListener documentListener : documentListeners)
-				{
-					new Thread(new Runnable()
-					{
-						@Override
-						public void run()
-						{
-							documentListener.onDocumentAdded(documentID);
-						}
-					}).start();
-				}
-			}
+		try
+		{
+			connected = connect(pollingActivated, subscriberFuture, startupExecutor, feedHandler);
 		}
-
-		if(preloadNewDocuments && cacheActivated && documentIDs.size() > 0)
+		finally
 		{
-			new Thread(new Runnable()
-			{
-				@Override
-				public void run()
-				{
-					coreService.getDocumentsByIDs(documentIDs, LoadType.COMPLETE, false);
-				}
-			}).start();
+			caughtUp = catchUp(catchUpFeedTypes, startupExecutor);
 		}
+
+		return complete && connected && caughtUp ? StartupState.READY : StartupState.DEGRADED;
 	}
 
 	/**
-	 * Handles a {@link Feed} update of the {@link Attachment} {@code Feed}.
+	 * Starts the polling of the {@link Feed}s (beginning at their watermarks)
+	 * or subscribes them.
 	 * 
-	 * @param entries A {@code List} with the {@code Atom} {@code Feed} entries
+	 * @param pollingActivated {@code true} if the {@code Feed}s are polled
+	 * @param subscriberFuture The {@code Future} of the {@code Subscriber} or
+	 *        {@code null} if the {@code Feed}s are polled
+	 * @param startupExecutor The {@code ExecutorService} which executes the
+	 *        steps
+	 * @param feedHandler The {@code FeedHandler} of the service
+	 * @return {@code true} if all {@code Feed}s are polled or have been
+	 *         subscribed
 	 */
-	private synchronized void handleAttachmentFeedUpdate(List<Entry> entries)
+	private boolean connect(boolean pollingActivated, Future<Subscriber> subscriberFuture, ExecutorService startupExecutor, FeedHandler feedHandler)
 	{
-		if(!hubFailureFallbackActivated || entries.size() < paginationSize)
-		{
-			for(int i = entries.size() - 1; i >= 0; i--)
-			{
-				String attachmentIDString = entries.get(i).getId();
-
-				String documentIDString = URLTransformationUtils.removeSubEntityPart(attachmentIDString);
-
-				DocumentID documentID = CoreServiceEntityIDFactory.getDocumentIDInstance(documentIDString);
-
-				final AttachmentID attachmentID = CoreServiceEntityIDFactory.getAttachmentIDInstance(attachmentIDString, documentID, documentID);
-
-				latestAttachmentID = attachmentID;
-
-				for(final AttachmentListener attachmentListener : attachmentListeners)
-				{
-					new Thread(new Runnable()
-					{
-						@Override
-						public void run()
-						{
-							attachmentListener.onAttachmentAdded(attachmentID);
-						}
-					}).start();
-				}
-			}
-		}
-		else
+		if(pollingActivated)
 		{
-			String latestAttachmentIDString = null;
-
-			if(latestAttachmentID != null)
-			{
-				latestAttachmentIDString = latestAttachmentID.toString();
-			}
-
-			List<String> attachmentIDStrings = getHubFailureFallbackEntryIDs(feedURLs.get("attachmentFeed"), latestAttachmentIDString);
+			FeedPoller feedPoller = new FeedPoller(xmlConfiguration, feedHandler, feedHttpClient);
 
-			for(int i = attachmentIDStrings.size() - 1; i >= 0; i--)
+			for(FeedType feedType : FeedType.values())
 			{
-				String attachmentIDString = attachmentIDStrings.get(i);
-
-				String documentIDString = URLTransformationUtils.removeSubEntityPart(attachmentIDString);
-
-				DocumentID documentID = CoreServiceEntityIDFactory.getDocumentIDInstance(documentIDString);
+				String feedURL = feedURLs.get(feedType.getFeedName());
 
-				final AttachmentID attachmentID = CoreServiceEntityIDFactory.getAttachmentIDInstance(attachmentIDString, documentID, documentID);
-
-				latestAttachmentID = attachmentID;
-
-				for(final AttachmentListener attachmentListener : attachmentListeners)
+				if(feedURL != null)
 				{
-					new Thread(new Runnable()
-					{
-						@Override
-						public void run()
-						{
-							attachmentListener.onAttachmentAdded(attachmentID);
-						}
-					}).start();
+					feedPoller.poll(feedURL, checkpointStore.getWatermark(feedType));
 				}
 			}
+
+			return true;
 		}
-	}
 
-	/**
-	 * Handles a {@link Feed} update of the {@link Comment} {@code Feed}.
-	 * 
-	 * @param entries A {@code List} with the {@code Atom} {@code Feed} entries
-	 */
-	private synchronized void handleCommentFeedUpdate(List<Entry> entries)
-	{
-		if(!hubFailureFallbackActivated || entries.size() < paginationSize)
-		{
-			for(int i = entries.size() - 1; i >= 0; i--)
-			{
-				String commentIDString = entries.get(i).getId();
+		final Subscriber subscriber = awaitStartupStep(subscriberFuture);
 
-				String documentIDString = URLTransformationUtils.removeSubEntityPart(commentIDString);
+		if(subscriber == null)
+		{
+			return false;
+		}
 
-				DocumentID documentID = CoreServiceEntityIDFactory.getDocumentIDInstance(documentIDString);
+		this.subscriber = subscriber;
 
-				final CommentID commentID = CoreServiceEntityIDFactory.getCommentIDInstance(commentIDString, documentID, documentID);
+		final HubDiscovery discovery = new HubDiscovery(feedHttpClient);
 
-				latestCommentID = commentID;
+		List<Future<Boolean>> subscriptionFutures = new ArrayList<Future<Boolean>>();
 
-				for(final CommentListener commentListener : commentListeners)
-				{
-					new Thread(new Runnable()
-					{
-						@Override
-						public void run()
-						{
-							commentListener.onCommentAdded(commentID);
-						}
-					}).start();
-				}
-			}
-		}
-		else
+		for(final FeedType feedType : FeedType.values())
 		{
-			String latestCommentIDString = null;
+			final String feedURL = feedURLs.get(feedType.getFeedName());
 
-			if(latestCommentID != null)
+			if(feedURL == null)
 			{
-				latestCommentIDString = latestCommentID.toString();
+				continue;
 			}
 
-			List<String> commentIDStrings = getHubFailureFallbackEntryIDs(feedURLs.get("commentFeed"), latestCommentIDString);
-
-			for(int i = commentIDStrings.size() - 1; i >= 0; i--)
+			subscriptionFutures.add(startupExecutor.submit(new Callable<Boolean>()
 			{
-				String commentIDString = commentIDStrings.get(i);
-
-				String documentIDString = URLTransformationUtils.removeSubEntityPart(commentIDString);
-
-				DocumentID documentID = CoreServiceEntityIDFactory.getDocumentIDInstance(documentIDString);
+				@Override
+				public Boolean call() throws Exception
+				{
+					SubscriptionState state = subscriber.subscribe(discovery, feedURL, feedType.getFeedName(), createFeedHandler(feedType));
 
-				final CommentID commentID = CoreServiceEntityIDFactory.getCommentIDInstance(commentIDString, documentID, documentID);
+					return Boolean.valueOf(state == SubscriptionState.ACTIVE || state == SubscriptionState.PENDING);
+				}
+			}));
+		}
 
-				latestCommentID = commentID;
+		boolean complete = true;
 
-				for(final CommentListener commentListener : commentListeners)
-				{
-					new Thread(new Runnable()
-					{
-						@Override
-						public void run()
-						{
-							commentListener.onCommentAdded(commentID);
-						}
-					}).start();
-				}
+		for(Future<Boolean> subscriptionFuture : subscriptionFutures)
+		{
+			if(!Boolean.TRUE.equals(awaitStartupStep(subscriptionFuture)))
+			{
+				complete = false;
 			}
 		}
+
+		return complete;
 	}
 
 	/**
-	 * This method serves as fallback in the case that a hub fails (e.g. if the
-	 * hub is not able to deliver the new contents fast enough and therefore the
-	 * number of entries which should be updated exceeds the number of entries
-	 * which are displayed on one {@code Feed} page). Hence this method offers
-	 * the possibility to receive the {@link EntityID}s in {@code String}
-	 * representation of all {@link Entity}s which are updated after the
-	 * {@code Entity} corresponding to the given {@link EntityID}.
+	 * Requests the pagination size of the {@link Feed}s from the service.
 	 * 
-	 * @param feedURL The {@code URL} ({@code String} representation) of the
-	 *        corresponding {@code Feed}
-	 * @param entityID The {@code EntityID} ({@code String} representation)
-	 *        after which the entries should be returned
-	 * @return A {@code Stack} with the requested {@code EntityID}s in
-	 *         {@code String} representation
+	 * @param serviceURL The service {@code URL}
+	 * @return The pagination size
 	 */
-	private Stack<String> getHubFailureFallbackEntryIDs(String feedURL, String entityID)
+	private int requestPaginationSize(URL serviceURL)
 	{
-		return getHubFailureFallbackEntryIDs(feedURL, entityID, new Stack<String>());
+		ClientResource clientResource = new ClientResource(serviceURL.toExternalForm());
+		clientResource.setNext(restletClient);
+		FeedServiceInstanceDataResource feedServiceInstanceDataResource = clientResource.get(FeedServiceInstanceDataResource.class);
+
+		System.out.println("[FeedService FeedServiceImpl] " + serviceURL.toExternalForm());
+
+		return feedServiceInstanceDataResource.getParameters().getPaginationSize();
 	}
 
 	/**
-	 * This method serves as fallback in the case that a hub fails (e.g. if the
-	 * hub is not able to deliver the new contents fast enough and therefore the
-	 * number of entries which should be updated exceeds the number of entries
-	 * which are displayed on one {@code Feed} page). Hence this method offers
-	 * the possibility to receive the {@link EntityID}s in {@code String}
-	 * representation of all {@link Entity}s which are updated after the
-	 * {@code Entity} corresponding to the given {@link EntityID}.
+	 * Creates the {@link Subscriber} of the service. The callback token of the
+	 * service is derived from the service {@link URL}, so that it is unique
+	 * within the JVM and stable across restarts.
 	 * 
-	 * @param feedURL The {@code URL} ({@code String} representation) of the
-	 *        corresponding {@code Feed}
-	 * @param entityID The {@code EntityID} ({@code String} representation)
-	 *        after which the entries should be returned
-	 * @param idStrings This parameter serves as recursion parameter and should
-	 *        be initially supplied with an empty {@code String} {@code Stack}
-	 * @return A {@code Stack} with the requested {@code EntityID}s in
-	 *         {@code String} representation
+	 * @param serviceURL The service {@code URL}
+	 * @param feedHandler The {@code FeedHandler} of the service
+	 * @return The {@code Subscriber}
 	 */
-	private Stack<String> getHubFailureFallbackEntryIDs(String feedURL, String entityID, Stack<String> idStrings)
+	private Subscriber createSubscriber(URL serviceURL, FeedHandler feedHandler)
 	{
-		ClientResource clientResource = new ClientResource(feedURL);
-		clientResource.setNext(restletClient);
-		Representation representation = clientResource.get(MediaType.APPLICATION_ATOM);
+		int port = serviceURL.getPort();
 
-		try
+		if(port == -1)
 		{
-			org.restlet.ext.atom.Feed feed = new org.restlet.ext.atom.Feed(representation);
-
-			List<org.restlet.ext.atom.Entry> entries = feed.getEntries();
-
-			for(org.restlet.ext.atom.Entry entry : entries)
-			{
-				if(!entry.getId().equals(entityID) && entry.getUpdated().after(initTime.toDate()))
-				{
-					idStrings.push(entry.getId());
-				}
-				else
-				{
-					return idStrings;
-				}
-			}
+			port = serviceURL.getDefaultPort();
+		}
 
-			Reference reference = null;
+		String callbackToken = (serviceURL.getHost() + "-" + port + serviceURL.getPath()).replaceAll("[^A-Za-z0-9.-]+", "-");
 
-			List<Link> links = feed.getLinks();
+		return Subscriber.getInstance(xmlConfiguration, callbackToken, feedHandler);
+	}
 
-			for(Link link : links)
+	/**
+	 * Creates the {@link FeedHandler} of the {@link Feed} of the given
+	 * {@link FeedType}. In contrast to the {@code FeedHandler} of the service,
+	 * it hands the {@code Feed} updates over without comparing the {@code Feed}
+	 * {@code URL}s.
+	 * 
+	 * @param feedType The {@code FeedType} of the {@code Feed}
+	 * @return The {@code FeedHandler} of the {@code Feed}
+	 */
+	private FeedHandler createFeedHandler(final FeedType feedType)
+	{
+		return new FeedHandler()
+		{
+			@Override
+			public void onFeedUpdate(String feedURL, FeedUpdate feedUpdate)
 			{
-				if(link.getRel().getName().equals("previous"))
+				switch(feedType)
 				{
-					reference = link.getHref();
-
-					break;
+					case ATTACHMENT:
+						handleAttachmentFeedUpdate(feedUpdate.getEntries());
+						break;
+					case COMMENT:
+						handleCommentFeedUpdate(feedUpdate.getEntries());
+						break;
+					default:
+						handleDocumentFeedUpdate(feedUpdate.getEntries());
+						break;
 				}
 			}
-
-			if(reference != null)
-			{
-				return getHubFailureFallbackEntryIDs(reference.toString(), entityID, idStrings);
-			}
-		}
-		catch(IOException e)
-		{
-			e.printStackTrace();
-		}
-
-		return idStrings;
+		};
 	}
 
 	/**
-	 * Sorts the given {@code List} of {@link Entry}s by their update
-	 * {@link Date}. <br/><br/>
+	 * Waits for the result of the given startup step, but not longer than the
+	 * configured timeout. If the step times out, it is cancelled.
 	 * 
-	 * <i/>Annotation:</i> The result is a {@code List} which starts with the
-	 * latest updated {@code Entry}s and ends with the oldest updated
-	 * {@code Entry}s.
-	 * 
-	 * @param entries The {@code List} of {@code Entry}s to sort
+	 * @param <T> The type of the result
+	 * @param future The {@code Future} of the startup step
+	 * @return The result or {@code null} if the step has failed or has timed
+	 *         out
 	 */
-	private void sortEntries(List<Entry> entries)
+	private <T> T awaitStartupStep(Future<T> future)
+	{
+		try
+		{
+			return future.get(startupStepTimeout, TimeUnit.MILLISECONDS);
+		}
+		catch(TimeoutException e)
+		{
+			future.cancel(true);
+
+			System.out.println("[FeedService FeedServiceImpl] A startup step has timed out.");
+		}
+		catch(ExecutionException e)
+		{
+			e.getCause().printStackTrace();
+		}
+		catch(InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+
+		return null;
+	}
+
+	@Override
+	public StartupState getStartupState()
+	{
+		return startupState;
+	}
+
+	@Override
+	public Future<StartupState> getStartupFuture()
+	{
+		return startup;
+	}
+
+	@Override
+	public void addDocumentListener(DocumentListener documentListener)
+	{
+		documentListeners.add(documentListener);
+	}
+
+	@Override
+	public void addAttachmentListener(AttachmentListener attachmentListener)
+	{
+		attachmentListeners.add(attachmentListener);
+	}
+
+	@Override
+	public void addCommentListener(CommentListener commentListener)
+	{
+		commentListeners.add(commentListener);
+	}
+
+	@Override
+	public void addDocumentBatchListener(DocumentBatchListener documentBatchListener)
+	{
+		documentBatchListeners.add(documentBatchListener);
+	}
+
+	@Override
+	public void addAttachmentBatchListener(AttachmentBatchListener attachmentBatchListener)
+	{
+		attachmentBatchListeners.add(attachmentBatchListener);
+	}
+
+	@Override
+	public void addCommentBatchListener(CommentBatchListener commentBatchListener)
+	{
+		commentBatchListeners.add(commentBatchListener);
+	}
+
+	@Override
+	public void removeListener(Listener listener)
+	{
+		if(listener instanceof DocumentListener)
+		{
+			documentListeners.remove(listener);
+		}
+		else if(listener instanceof AttachmentListener)
+		{
+			attachmentListeners.remove(listener);
+		}
+		else if(listener instanceof CommentListener)
+		{
+			commentListeners.remove(listener);
+		}
+
+		if(listener instanceof DocumentBatchListener)
+		{
+			documentBatchListeners.remove(listener);
+		}
+		else if(listener instanceof AttachmentBatchListener)
+		{
+			attachmentBatchListeners.remove(listener);
+		}
+		else if(listener instanceof CommentBatchListener)
+		{
+			commentBatchListeners.remove(listener);
+		}
+	}
+
+	@Override
+	public int getMailboxDepth(Listener listener)
+	{
+		ListenerMailbox<?> mailbox = getMailbox(listener);
+
+		if(mailbox == null)
+		{
+			return -1;
+		}
+
+		return mailbox.getDepth();
+	}
+
+	@Override
+	public long getMailboxLag(Listener listener)
+	{
+		ListenerMailbox<?> mailbox = getMailbox(listener);
+
+		if(mailbox == null)
+		{
+			return -1;
+		}
+
+		return mailbox.getLag();
+	}
+
+	@Override
+	public long getDuplicateEntryCount(FeedType feedType)
+	{
+		return getSeenEntryFilter(feedType).getHitCount();
+	}
+
+	@Override
+	public long getDistinctEntryCount(FeedType feedType)
+	{
+		return getSeenEntryFilter(feedType).getMissCount();
+	}
+
+	@Override
+	public SubscriptionState getSubscriptionState(FeedType feedType)
+	{
+		String feedURL = feedURLs.get(feedType.getFeedName());
+
+		if(subscriber == null || feedURL == null)
+		{
+			return SubscriptionState.UNSUBSCRIBED;
+		}
+
+		return subscriber.getSubscriptionState(feedURL);
+	}
+
+	@Override
+	public long getPreloadHitCount()
 	{
-		Collections.sort(entries, this);
+		return documentPreloader.getHitCount();
 	}
 
 	@Override
-	public int compare(Entry entry1, Entry entry2)
+	public long getPreloadMissCount()
+	{
+		return documentPreloader.getMissCount();
+	}
+
+	@Override
+	public long getAveragePreloadTime()
+	{
+		return documentPreloader.getAverageLoadTime();
+	}
+
+	/**
+	 * Returns the {@link SeenEntryFilter} of the given {@link FeedType}.
+	 * 
+	 * @param feedType A {@code FeedType}
+	 * @return The {@code SeenEntryFilter}
+	 */
+	private SeenEntryFilter getSeenEntryFilter(FeedType feedType)
+	{
+		switch(feedType)
+		{
+			case ATTACHMENT:
+				return attachmentEntryFilter;
+			case COMMENT:
+				return commentEntryFilter;
+			default:
+				return documentEntryFilter;
+		}
+	}
+
+	/**
+	 * Returns the {@link FeedStatistics} of the given {@link FeedType}.
+	 * 
+	 * @param feedType A {@code FeedType}
+	 * @return The {@code FeedStatistics}
+	 */
+	private FeedStatistics getFeedStatistics(FeedType feedType)
+	{
+		switch(feedType)
+		{
+			case ATTACHMENT:
+				return attachmentStatistics;
+			case COMMENT:
+				return commentStatistics;
+			default:
+				return documentStatistics;
+		}
+	}
+
+	/**
+	 * Registers the {@code MBean} of the {@link FeedService} instance and the
+	 * {@code MBean}s of its {@link Feed}s at the platform {@code MBeanServer}.
+	 * 
+	 * @param serviceURL The service {@code URL}
+	 */
+	private void registerMBeans(URL serviceURL)
+	{
+		String service = serviceURL.toExternalForm();
+
+		MBeanRegistrar.register(MBeanRegistrar.createObjectName("type", "FeedService", "service", service), new FeedServiceMonitor(this, dispatcher));
+
+		for(FeedType feedType : FeedType.values())
+		{
+			MBeanRegistrar.register(MBeanRegistrar.createObjectName("type", "Feed", "service", service, "feed", feedType.getFeedName()), getFeedStatistics(feedType));
+		}
+	}
+
+	/**
+	 * Returns the {@link ListenerMailbox} of the given {@link Listener}.
+	 * 
+	 * @param listener A {@code Listener}
+	 * @return The {@code ListenerMailbox} or {@code null} if the
+	 *         {@code Listener} has not been added
+	 */
+	private ListenerMailbox<?> getMailbox(Listener listener)
+	{
+		if(listener instanceof DocumentListener)
+		{
+			return documentListeners.getMailbox(listener);
+		}
+		else if(listener instanceof AttachmentListener)
+		{
+			return attachmentListeners.getMailbox(listener);
+		}
+		else if(listener instanceof CommentListener)
+		{
+			return commentListeners.getMailbox(listener);
+		}
+		else if(listener instanceof DocumentBatchListener)
+		{
+			return documentBatchListeners.getMailbox(listener);
+		}
+		else if(listener instanceof AttachmentBatchListener)
+		{
+			return attachmentBatchListeners.getMailbox(listener);
+		}
+		else if(listener instanceof CommentBatchListener)
+		{
+			return commentBatchListeners.getMailbox(listener);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Holds the watermark of each {@link Feed} which has a persisted watermark
+	 * back until its catch-up crawl has ended.
+	 * 
+	 * @return A {@code List} with the {@code FeedType}s which have to be caught
+	 *         up
+	 */
+	private List<FeedType> beginCatchUp()
+	{
+		List<FeedType> feedTypes = new ArrayList<FeedType>();
+
+		for(FeedType feedType : FeedType.values())
+		{
+			if(checkpointStore.getWatermark(feedType) != null && feedURLs.containsKey(feedType.getFeedName()))
+			{
+				checkpointStore.beginCrawl(feedType);
+
+				feedTypes.add(feedType);
+			}
+		}
+
+		return feedTypes;
+	}
+
+	/**
+	 * Runs one catch-up crawl for each of the given {@link Feed}s in parallel,
+	 * so that the entries which have been published while the service has not
+	 * been running are handled. Each crawl is limited by the configured step
+	 * timeout. Afterwards the watermarks which have been held back by
+	 * {@link #beginCatchUp()} are released.
+	 * 
+	 * @param feedTypes The {@code FeedType}s of the {@code Feed}s
+	 * @param startupExecutor The {@code ExecutorService} which executes the
+	 *        crawls
+	 * @return {@code true} if all crawls have ended within the step timeout
+	 */
+	private boolean catchUp(List<FeedType> feedTypes, ExecutorService startupExecutor)
+	{
+		boolean complete = true;
+
+		try
+		{
+			List<Future<Boolean>> crawlFutures = new ArrayList<Future<Boolean>>();
+
+			for(final FeedType feedType : feedTypes)
+			{
+				crawlFutures.add(startupExecutor.submit(new Callable<Boolean>()
+				{
+					@Override
+					public Boolean call()
+					{
+						crawlFeed(feedType);
+
+						return Boolean.TRUE;
+					}
+				}));
+			}
+
+			for(Future<Boolean> crawlFuture : crawlFutures)
+			{
+				if(awaitStartupStep(crawlFuture) == null)
+				{
+					complete = false;
+				}
+			}
+		}
+		finally
+		{
+			for(FeedType feedType : feedTypes)
+			{
+				checkpointStore.endCrawl(feedType, null);
+			}
+		}
+
+		return complete;
+	}
+
+	/**
+	 * Crawls the {@link Feed} of the given {@link FeedType} for the entries
+	 * which are newer than its watermark.
+	 * 
+	 * @param feedType The {@code FeedType}
+	 */
+	private void crawlFeed(FeedType feedType)
+	{
+		switch(feedType)
+		{
+			case ATTACHMENT:
+				crawlAttachmentFeed();
+				break;
+			case COMMENT:
+				crawlCommentFeed();
+				break;
+			default:
+				crawlDocumentFeed();
+				break;
+		}
+	}
+
+	/**
+	 * Handles a {@link Feed} update of the {@link Document} {@code Feed}. If
+	 * the hub failure fallback is necessary, a crawl of the missed entries is
+	 * requested, which is executed on the crawl {@code Thread} of the
+	 * {@code Feed}. Otherwise the entries are handed over to the reorder
+	 * buffer, which releases them in chronological order.
+	 * 
+	 * @param entries A {@code List} with the {@code FeedEntry}s in any order
+	 */
+	private void handleDocumentFeedUpdate(List<FeedEntry> entries)
+	{
+		documentStatistics.recordUpdate(entries.size());
+
+		if(hubFailureFallbackActivated && entries.size() >= paginationSize)
+		{
+			documentCrawlScheduler.request();
+		}
+		else
+		{
+			documentReorderBuffer.add(entries);
+		}
+	}
+
+	/**
+	 * Crawls the {@link Document} {@code Feed} for the entries which are newer
+	 * than its watermark and handles them page by page.
+	 */
+	private void crawlDocumentFeed()
+	{
+		crawl(FeedType.DOCUMENT, new FallbackPageHandler()
+		{
+			@Override
+			public void onPage(List<FeedEntry> entries, int pageIndex)
+			{
+				handleDocumentEntries(entries);
+			}
+		});
+	}
+
+	/**
+	 * Handles the given {@link FeedEntry}s of the {@link Document}
+	 * {@code Feed}.
+	 * <br/><br/>
+	 * 
+	 * <i>Annotation:</i> No lock is held while the {@code Notification}s are
+	 * posted, since posting never blocks. Entries which are handled by
+	 * different {@code Thread}s at the same time may therefore be delivered
+	 * interleaved.
+	 * 
+	 * @param entries A {@code List} with the {@code FeedEntry}s, starting with
+	 *        the latest updated {@code FeedEntry}
+	 */
+	private void handleDocumentEntries(List<FeedEntry> entries)
+	{
+		List<DocumentID> documentIDs = new ArrayList<DocumentID>();
+		List<Notification<DocumentListener>> notifications = new ArrayList<Notification<DocumentListener>>();
+
+		for(int i = entries.size() - 1; i >= 0; i--)
+		{
+			String documentIDString = entries.get(i).getId();
+
+			if(!documentEntryFilter.markSeen(documentIDString))
+			{
+				continue;
+			}
+
+			final DocumentID documentID = entityIDCache.getDocumentID(documentIDString);
+
+			documentIDs.add(documentID);
+
+			notifications.add(new Notification<DocumentListener>()
+			{
+				@Override
+				public void deliverTo(DocumentListener documentListener)
+				{
+					documentListener.onDocumentAdded(documentID);
+				}
+			});
+		}
+
+		ListenerRegistry.post(documentListeners.getMailboxes(), notifications);
+
+		if(!documentBatchListeners.isEmpty())
+		{
+			documentBatchWindow.add(documentIDs);
+		}
+
+		if(preloadNewDocuments && cacheActivated && documentIDs.size() > 0)
+		{
+			documentPreloader.preload(documentIDs, false);
+		}
+	}
+
+	/**
+	 * Handles a {@link Feed} update of the {@link Attachment} {@code Feed}. If
+	 * the hub failure fallback is necessary, a crawl of the missed entries is
+	 * requested, which is executed on the crawl {@code Thread} of the
+	 * {@code Feed}. Otherwise the entries are handed over to the reorder
+	 * buffer, which releases them in chronological order.
+	 * 
+	 * @param entries A {@code List} with the {@code FeedEntry}s in any order
+	 */
+	private void handleAttachmentFeedUpdate(List<FeedEntry> entries)
+	{
+		attachmentStatistics.recordUpdate(entries.size());
+
+		if(hubFailureFallbackActivated && entries.size() >= paginationSize)
+		{
+			attachmentCrawlScheduler.request();
+		}
+		else
+		{
+			attachmentReorderBuffer.add(entries);
+		}
+	}
+
+	/**
+	 * Crawls the {@link Attachment} {@code Feed} for the entries which are
+	 * newer than its watermark and handles them page by page.
+	 */
+	private void crawlAttachmentFeed()
+	{
+		crawl(FeedType.ATTACHMENT, new FallbackPageHandler()
+		{
+			@Override
+			public void onPage(List<FeedEntry> entries, int pageIndex)
+			{
+				handleAttachmentEntries(entries);
+			}
+		});
+	}
+
+	/**
+	 * Handles the given {@link FeedEntry}s of the {@link Attachment}
+	 * {@code Feed}. The parent {@link Document}s of the new {@code Attachment}s
+	 * are preloaded according to the configured {@link PreloadPolicy}.
+	 * <br/><br/>
+	 * 
+	 * <i>Annotation:</i> No lock is held while the {@code Notification}s are
+	 * posted, since posting never blocks. Entries which are handled by
+	 * different {@code Thread}s at the same time may therefore be delivered
+	 * interleaved.
+	 * 
+	 * @param entries A {@code List} with the {@code FeedEntry}s, starting with
+	 *        the latest updated {@code FeedEntry}
+	 */
+	private void handleAttachmentEntries(List<FeedEntry> entries)
+	{
+		List<AttachmentID> attachmentIDs = new ArrayList<AttachmentID>();
+		List<DocumentID> documentIDs = new ArrayList<DocumentID>();
+
+		for(int i = entries.size() - 1; i >= 0; i--)
+		{
+			String attachmentIDString = entries.get(i).getId();
+
+			if(!attachmentEntryFilter.markSeen(attachmentIDString))
+			{
+				continue;
+			}
+
+			SubEntityIDs<AttachmentID> subEntityIDs = entityIDCache.getAttachmentIDs(attachmentIDString);
+
+			attachmentIDs.add(subEntityIDs.getSubEntityID());
+			documentIDs.add(subEntityIDs.getDocumentID());
+		}
+
+		if(attachmentIDs.isEmpty())
+		{
+			return;
+		}
+
+		preloadParentDocuments(attachmentPreloadPolicy, documentIDs);
+
+		List<Notification<AttachmentListener>> notifications = new ArrayList<Notification<AttachmentListener>>();
+
+		for(final AttachmentID attachmentID : attachmentIDs)
+		{
+			notifications.add(new Notification<AttachmentListener>()
+			{
+				@Override
+				public void deliverTo(AttachmentListener attachmentListener)
+				{
+					attachmentListener.onAttachmentAdded(attachmentID);
+				}
+			});
+		}
+
+		ListenerRegistry.post(attachmentListeners.getMailboxes(), notifications);
+
+		if(!attachmentBatchListeners.isEmpty())
+		{
+			attachmentBatchWindow.add(attachmentIDs);
+		}
+	}
+
+	/**
+	 * Handles a {@link Feed} update of the {@link Comment} {@code Feed}. If the
+	 * hub failure fallback is necessary, a crawl of the missed entries is
+	 * requested, which is executed on the crawl {@code Thread} of the
+	 * {@code Feed}. Otherwise the entries are handed over to the reorder
+	 * buffer, which releases them in chronological order.
+	 * 
+	 * @param entries A {@code List} with the {@code FeedEntry}s in any order
+	 */
+	private void handleCommentFeedUpdate(List<FeedEntry> entries)
+	{
+		commentStatistics.recordUpdate(entries.size());
+
+		if(hubFailureFallbackActivated && entries.size() >= paginationSize)
+		{
+			commentCrawlScheduler.request();
+		}
+		else
+		{
+			commentReorderBuffer.add(entries);
+		}
+	}
+
+	/**
+	 * Crawls the {@link Comment} {@code Feed} for the entries which are newer
+	 * than its watermark and handles them page by page.
+	 */
+	private void crawlCommentFeed()
+	{
+		crawl(FeedType.COMMENT, new FallbackPageHandler()
+		{
+			@Override
+			public void onPage(List<FeedEntry> entries, int pageIndex)
+			{
+				handleCommentEntries(entries);
+			}
+		});
+	}
+
+	/**
+	 * Handles the given {@link FeedEntry}s of the {@link Comment} {@code Feed}.
+	 * The parent {@link Document}s of the new {@code Comment}s are preloaded
+	 * according to the configured {@link PreloadPolicy}. <br/><br/>
+	 * 
+	 * <i>Annotation:</i> No lock is held while the {@code Notification}s are
+	 * posted, since posting never blocks. Entries which are handled by
+	 * different {@code Thread}s at the same time may therefore be delivered
+	 * interleaved.
+	 * 
+	 * @param entries A {@code List} with the {@code FeedEntry}s, starting with
+	 *        the latest updated {@code FeedEntry}
+	 */
+	private void handleCommentEntries(List<FeedEntry> entries)
 	{
-		if(entry1.getUpdated().equals(entry2.getUpdated()))
+		List<CommentID> commentIDs = new ArrayList<CommentID>();
+		List<DocumentID> documentIDs = new ArrayList<DocumentID>();
+
+		for(int i = entries.size() - 1; i >= 0; i--)
 		{
-			return 0;
+			String commentIDString = entries.get(i).getId();
+
+			if(!commentEntryFilter.markSeen(commentIDString))
+			{
+				continue;
+			}
+
+			SubEntityIDs<CommentID> subEntityIDs = entityIDCache.getCommentIDs(commentIDString);
+
+			commentIDs.add(subEntityIDs.getSubEntityID());
+			documentIDs.add(subEntityIDs.getDocumentID());
 		}
-		else if(entry1.getUpdated().before(entry2.getUpdated()))
+
+		if(commentIDs.isEmpty())
 		{
-			return 1;
+			return;
 		}
 
-		return -1;
+		preloadParentDocuments(commentPreloadPolicy, documentIDs);
+
+		List<Notification<CommentListener>> notifications = new ArrayList<Notification<CommentListener>>();
+
+		for(final CommentID commentID : commentIDs)
+		{
+			notifications.add(new Notification<CommentListener>()
+			{
+				@Override
+				public void deliverTo(CommentListener commentListener)
+				{
+					commentListener.onCommentAdded(commentID);
+				}
+			});
+		}
+
+		ListenerRegistry.post(commentListeners.getMailboxes(), notifications);
+
+		if(!commentBatchListeners.isEmpty())
+		{
+			commentBatchWindow.add(commentIDs);
+		}
+	}
+
+	/**
+	 * Preloads the given parent {@link Document}s of new {@link Attachment}s or
+	 * {@link Comment}s according to the given {@link PreloadPolicy}.
+	 * 
+	 * @param preloadPolicy The {@code PreloadPolicy}
+	 * @param documentIDs The {@code DocumentID}s of the parent
+	 *        {@code Document}s
+	 */
+	private void preloadParentDocuments(PreloadPolicy preloadPolicy, List<DocumentID> documentIDs)
+	{
+		if(!cacheActivated)
+		{
+			return;
+		}
+
+		if(preloadPolicy == PreloadPolicy.BEFORE)
+		{
+			documentPreloader.load(documentIDs, true);
+		}
+		else if(preloadPolicy == PreloadPolicy.CONCURRENT)
+		{
+			documentPreloader.preload(documentIDs, true);
+		}
+	}
+
+	/**
+	 * Crawls the {@link Feed} of the given {@link FeedType} for the entries
+	 * which are newer than its watermark. If there is no watermark, only the
+	 * entries which have been updated after the initialization of the service
+	 * are crawled. <br/><br/>
+	 * 
+	 * The watermark is held back while the crawl is running and is advanced to
+	 * the latest crawled entry afterwards. If the crawl has been stopped early,
+	 * the entries between the former watermark and the oldest crawled page are
+	 * skipped, so that the next crawl or restart does not repeat the same
+	 * bounded crawl. Entries which are crawled twice are suppressed by the
+	 * {@code SeenEntryFilter}.
+	 * 
+	 * @param feedType The {@code FeedType}
+	 * @param pageHandler The {@code FallbackPageHandler} which handles the
+	 *        crawled pages
+	 */
+	private void crawl(FeedType feedType, final FallbackPageHandler pageHandler)
+	{
+		final FeedStatistics feedStatistics = getFeedStatistics(feedType);
+
+		long crawlStartTime = System.nanoTime();
+
+		FeedEntry watermark = checkpointStore.getWatermark(feedType);
+
+		String entryID = null;
+		long minUpdated = initTime.getMillis();
+
+		if(watermark != null)
+		{
+			entryID = watermark.getId();
+			minUpdated = watermark.getUpdated();
+		}
+
+		checkpointStore.beginCrawl(feedType);
+
+		FeedEntry latestEntry = null;
+
+		try
+		{
+			CrawlResult crawlResult = fallbackCrawler.crawl(feedURLs.get(feedType.getFeedName()), entryID, minUpdated, new FallbackPageHandler()
+			{
+				@Override
+				public void onPage(List<FeedEntry> entries, int pageIndex)
+				{
+					long startTime = System.nanoTime();
+
+					pageHandler.onPage(entries, pageIndex);
+
+					feedStatistics.recordHandling(startTime);
+					feedStatistics.recordCrawledPage();
+				}
+			});
+
+			feedStatistics.recordCrawl(crawlStartTime);
+
+			if(!crawlResult.isComplete())
+			{
+				System.out.println("[FeedService] The crawl is incomplete, older missed entries are skipped: " + feedType.getFeedName());
+			}
+
+			latestEntry = crawlResult.getLatestEntry();
+		}
+		finally
+		{
+			checkpointStore.endCrawl(feedType, latestEntry);
+		}
 	}
 }
@@ -0,0 +1,78 @@
+package org.diretto.api.client.main.feed;
+
+import org.diretto.api.client.main.feed.dispatch.Dispatcher;
+import org.diretto.api.client.main.feed.management.FeedServiceMXBean;
+import org.diretto.api.client.main.feed.management.LatencySnapshot;
+
+/**
+ * This class represents a {@code FeedServiceMonitor}, which exposes the state
+ * of a {@link FeedService} instance and its {@link Dispatcher} through the
+ * {@link FeedServiceMXBean} interface.
+ * 
+ * @author Tobias Schlecht
+ */
+final class FeedServiceMonitor implements FeedServiceMXBean
+{
+	private final FeedService feedService;
+	private final Dispatcher dispatcher;
+
+	/**
+	 * Constructs a {@link FeedServiceMonitor}.
+	 * 
+	 * @param feedService The monitored {@code FeedService}
+	 * @param dispatcher The {@code Dispatcher} of the {@code FeedService}
+	 */
+	FeedServiceMonitor(FeedService feedService, Dispatcher dispatcher)
+	{
+		this.feedService = feedService;
+		this.dispatcher = dispatcher;
+	}
+
+	@Override
+	public String getStartupState()
+	{
+		return feedService.getStartupState().name();
+	}
+
+	@Override
+	public int getDispatchQueueSize()
+	{
+		return dispatcher.getQueueSize();
+	}
+
+	@Override
+	public int getDispatchActiveCount()
+	{
+		return dispatcher.getActiveCount();
+	}
+
+	@Override
+	public long getDroppedDispatchTaskCount()
+	{
+		return dispatcher.getDroppedTaskCount();
+	}
+
+	@Override
+	public LatencySnapshot getDispatchLatency()
+	{
+		return dispatcher.getDispatchLatency();
+	}
+
+	@Override
+	public long getPreloadHitCount()
+	{
+		return feedService.getPreloadHitCount();
+	}
+
+	@Override
+	public long getPreloadMissCount()
+	{
+		return feedService.getPreloadMissCount();
+	}
+
+	@Override
+	public long getAveragePreloadTime()
+	{
+		return feedService.getAveragePreloadTime();
+	}
+}
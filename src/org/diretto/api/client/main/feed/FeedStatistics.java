@@ -0,0 +1,156 @@
+package org.diretto.api.client.main.feed;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.diretto.api.client.main.feed.atom.FeedEntry;
+import org.diretto.api.client.main.feed.atom.ReorderBuffer;
+import org.diretto.api.client.main.feed.atom.SeenEntryFilter;
+import org.diretto.api.client.main.feed.management.FeedMXBean;
+import org.diretto.api.client.main.feed.management.LatencyHistogram;
+import org.diretto.api.client.main.feed.management.LatencySnapshot;
+
+import com.sun.syndication.feed.atom.Feed;
+
+/**
+ * This class represents the {@code FeedStatistics} of a single {@link Feed}.
+ * The counters and latencies are recorded by the {@link FeedServiceImpl},
+ * whereas the gauges are read from the corresponding components on demand.
+ * 
+ * @author Tobias Schlecht
+ */
+final class FeedStatistics implements FeedMXBean
+{
+	private final FeedType feedType;
+	private final SeenEntryFilter seenEntryFilter;
+	private final ReorderBuffer reorderBuffer;
+	private final CheckpointStore checkpointStore;
+
+	private final AtomicLong updateCount = new AtomicLong(0);
+	private final AtomicLong entryCount = new AtomicLong(0);
+	private final AtomicLong crawledPageCount = new AtomicLong(0);
+
+	private final LatencyHistogram crawlTime = new LatencyHistogram();
+	private final LatencyHistogram handleTime = new LatencyHistogram();
+
+	/**
+	 * Constructs the {@link FeedStatistics} of a {@link Feed}.
+	 * 
+	 * @param feedType The {@code FeedType} of the {@code Feed}
+	 * @param seenEntryFilter The {@code SeenEntryFilter} of the {@code Feed}
+	 * @param reorderBuffer The {@code ReorderBuffer} of the {@code Feed}
+	 * @param checkpointStore The {@code CheckpointStore}
+	 */
+	FeedStatistics(FeedType feedType, SeenEntryFilter seenEntryFilter, ReorderBuffer reorderBuffer, CheckpointStore checkpointStore)
+	{
+		this.feedType = feedType;
+		this.seenEntryFilter = seenEntryFilter;
+		this.reorderBuffer = reorderBuffer;
+		this.checkpointStore = checkpointStore;
+	}
+
+	/**
+	 * Records a received {@link Feed} update.
+	 * 
+	 * @param size The number of entries of the {@code Feed} update
+	 */
+	void recordUpdate(int size)
+	{
+		updateCount.incrementAndGet();
+		entryCount.addAndGet(size);
+	}
+
+	/**
+	 * Records a completed hub failure fallback crawl.
+	 * 
+	 * @param startTime The start time of the crawl in nanoseconds
+	 */
+	void recordCrawl(long startTime)
+	{
+		crawlTime.recordSince(startTime);
+	}
+
+	/**
+	 * Records a crawled {@link Feed} page with new entries.
+	 */
+	void recordCrawledPage()
+	{
+		crawledPageCount.incrementAndGet();
+	}
+
+	/**
+	 * Records the handling of a list of {@link Feed} entries.
+	 * 
+	 * @param startTime The start time of the handling in nanoseconds
+	 */
+	void recordHandling(long startTime)
+	{
+		handleTime.recordSince(startTime);
+	}
+
+	@Override
+	public long getUpdateCount()
+	{
+		return updateCount.get();
+	}
+
+	@Override
+	public long getEntryCount()
+	{
+		return entryCount.get();
+	}
+
+	@Override
+	public long getDuplicateEntryCount()
+	{
+		return seenEntryFilter.getHitCount();
+	}
+
+	@Override
+	public long getDistinctEntryCount()
+	{
+		return seenEntryFilter.getMissCount();
+	}
+
+	@Override
+	public int getHeldEntryCount()
+	{
+		return reorderBuffer.getHeldEntryCount();
+	}
+
+	@Override
+	public long getWatermark()
+	{
+		FeedEntry watermark = checkpointStore.getWatermark(feedType);
+
+		if(watermark == null)
+		{
+			return 0;
+		}
+
+		return watermark.getUpdated();
+	}
+
+	@Override
+	public long getCrawlCount()
+	{
+		return crawlTime.getCount();
+	}
+
+	@Override
+	public long getCrawledPageCount()
+	{
+		return crawledPageCount.get();
+	}
+
+	@Override
+	public LatencySnapshot getCrawlTime()
+	{
+		return crawlTime.getSnapshot();
+	}
+
+	@Override
+	public LatencySnapshot getHandleTime()
+	{
+		return handleTime.getSnapshot();
+	}
+}
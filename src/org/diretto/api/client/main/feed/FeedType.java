@@ -0,0 +1,48 @@
+package org.diretto.api.client.main.feed;
+
+/**
+ * This enum represents the types of the {@code Feed}s which are provided by a
+ * {@link FeedService}.
+ * 
+ * @author Tobias Schlecht
+ */
+public enum FeedType
+{
+	/**
+	 * The {@code Feed} of the {@code Document}s.
+	 */
+	DOCUMENT("documentFeed"),
+
+	/**
+	 * The {@code Feed} of the {@code Attachment}s.
+	 */
+	ATTACHMENT("attachmentFeed"),
+
+	/**
+	 * The {@code Feed} of the {@code Comment}s.
+	 */
+	COMMENT("commentFeed");
+
+	private final String feedName;
+
+	/**
+	 * Constructs a {@link FeedType}.
+	 * 
+	 * @param feedName The name of the {@code Feed} within the XML configuration
+	 *        file
+	 */
+	private FeedType(String feedName)
+	{
+		this.feedName = feedName;
+	}
+
+	/**
+	 * Returns the name of the {@code Feed} within the XML configuration file.
+	 * 
+	 * @return The name of the {@code Feed}
+	 */
+	public String getFeedName()
+	{
+		return feedName;
+	}
+}
@@ -0,0 +1,73 @@
+package org.diretto.api.client.main.feed;
+
+/**
+ * This enum represents the policies which determine whether and when the parent
+ * {@code Document}s of new {@code Attachment}s and {@code Comment}s are
+ * preloaded into the cache of the {@code CoreService}.
+ * 
+ * @author Tobias Schlecht
+ */
+enum PreloadPolicy
+{
+	/**
+	 * Nothing is preloaded.
+	 */
+	NONE("none"),
+
+	/**
+	 * The parent {@code Document}s are loaded before the {@code Listener}s are
+	 * notified. Hence the notification is delayed by the load.
+	 */
+	BEFORE("before"),
+
+	/**
+	 * The parent {@code Document}s are preloaded asynchronously while the
+	 * {@code Listener}s are notified.
+	 */
+	CONCURRENT("concurrent");
+
+	private final String configValue;
+
+	/**
+	 * Constructs a {@link PreloadPolicy}.
+	 * 
+	 * @param configValue The value which represents the {@code PreloadPolicy}
+	 *        within the XML configuration file
+	 */
+	private PreloadPolicy(String configValue)
+	{
+		this.configValue = configValue;
+	}
+
+	/**
+	 * Returns the value which represents the {@link PreloadPolicy} within the
+	 * XML configuration file.
+	 * 
+	 * @return The configuration value
+	 */
+	String getConfigValue()
+	{
+		return configValue;
+	}
+
+	/**
+	 * Returns the {@link PreloadPolicy} corresponding to the given
+	 * configuration value. If there is no matching {@code PreloadPolicy},
+	 * {@link #NONE} will be returned.
+	 * 
+	 * @param configValue The configuration value
+	 * @return The corresponding {@code PreloadPolicy}
+	 */
+	static PreloadPolicy fromConfigValue(String configValue)
+	{
+		for(PreloadPolicy preloadPolicy : values())
+		{
+			if(preloadPolicy.configValue.equalsIgnoreCase(configValue))
+			{
+				return preloadPolicy;
+			}
+		}
+
+		return NONE;
+	}
+}
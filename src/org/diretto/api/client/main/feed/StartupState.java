@@ -0,0 +1,31 @@
+package org.diretto.api.client.main.feed;
+
+/**
+ * This enum represents the states of the startup of a {@link FeedService}.
+ * 
+ * @author Tobias Schlecht
+ */
+public enum StartupState
+{
+	/**
+	 * The startup is still in progress.
+	 */
+	STARTING,
+
+	/**
+	 * The startup has been completed successfully and all {@code Feed}s are
+	 * subscribed (or polled).
+	 */
+	READY,
+
+	/**
+	 * The startup has been completed, but at least one step has failed or has
+	 * timed out (e.g. a {@code Feed} could not be subscribed).
+	 */
+	DEGRADED,
+
+	/**
+	 * The startup has been aborted by an unexpected error.
+	 */
+	FAILED
+}
@@ -0,0 +1,325 @@
+package org.diretto.api.client.main.feed.atom;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.configuration.XMLConfiguration;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.ISODateTimeFormat;
+
+import com.sun.syndication.feed.atom.Entry;
+import com.sun.syndication.feed.atom.Feed;
+import com.sun.syndication.feed.atom.Link;
+import com.sun.syndication.io.FeedException;
+import com.sun.syndication.io.WireFeedInput;
+import com.sun.syndication.io.XmlReader;
+
+/**
+ * This class represents an {@code AtomParser}, which transforms an {@code Atom}
+ * {@code Feed} document into a {@link FeedUpdate}. <br/><br/>
+ * 
+ * By default the document is parsed in a streaming manner (with {@code StAX}),
+ * whereby only the {@code ID} of the {@code Feed}, the link to the previous
+ * {@code Feed} page as well as the {@code ID} and the update time of each entry
+ * are extracted. No document tree is built. Alternatively the document can be
+ * parsed with {@code ROME}, so that the complete {@link Feed} is available as
+ * part of the {@code FeedUpdate}. <br/><br/>
+ * 
+ * With both parsers an entry without an update time gets its publication time
+ * or otherwise the update time of the {@code Feed}.
+ * 
+ * @author Tobias Schlecht
+ */
+public final class AtomParser
+{
+	public static final String ATOM_NAMESPACE = "http://www.w3.org/2005/Atom";
+
+	private static final String ROME_PARSER = "rome";
+
+	private static final XMLInputFactory xmlInputFactory = createXMLInputFactory();
+	private static final DateTimeFormatter dateTimeParser = ISODateTimeFormat.dateTimeParser();
+
+	private final boolean romeParserActivated;
+
+	/**
+	 * Constructs an {@link AtomParser}.
+	 * 
+	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 */
+	public AtomParser(XMLConfiguration xmlConfiguration)
+	{
+		romeParserActivated = ROME_PARSER.equalsIgnoreCase(xmlConfiguration.getString("pubsubhubbub/push-parser"));
+	}
+
+	/**
+	 * Creates the shared {@link XMLInputFactory}. The support of DTDs and
+	 * external entities is disabled.
+	 * 
+	 * @return The {@code XMLInputFactory}
+	 */
+	private static XMLInputFactory createXMLInputFactory()
+	{
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+
+		return factory;
+	}
+
+	/**
+	 * Parses the {@code Atom} {@code Feed} document which is provided by the
+	 * given {@link InputStream}. Depending on the configuration, the document
+	 * is either parsed in a streaming manner or with {@code ROME}.
+	 * 
+	 * @param inputStream The {@code InputStream}
+	 * @return The resulting {@code FeedUpdate}
+	 * @throws IOException If the document could not be read or parsed
+	 */
+	public FeedUpdate parse(InputStream inputStream) throws IOException
+	{
+		if(romeParserActivated)
+		{
+			return parseWithROME(inputStream);
+		}
+
+		return parseStreaming(inputStream);
+	}
+
+	/**
+	 * Parses the {@code Atom} {@code Feed} document which is provided by the
+	 * given {@link InputStream} in a streaming manner. The resulting
+	 * {@link FeedUpdate} does not contain the complete {@link Feed}.
+	 * 
+	 * @param inputStream The {@code InputStream}
+	 * @return The resulting {@code FeedUpdate}
+	 * @throws IOException If the document could not be read or parsed
+	 */
+	public static FeedUpdate parseStreaming(InputStream inputStream) throws IOException
+	{
+		return parseStreaming(inputStream, null);
+	}
+
+	/**
+	 * Parses the {@code Atom} {@code Feed} document which is provided by the
+	 * given {@link InputStream} in a streaming manner and informs the given
+	 * {@link PreviousPageLinkListener} as soon as the link to the previous
+	 * {@link Feed} page has been read.
+	 * 
+	 * @param inputStream The {@code InputStream}
+	 * @param previousPageLinkListener The {@code PreviousPageLinkListener} or
+	 *        {@code null}
+	 * @return The resulting {@code FeedUpdate}
+	 * @throws IOException If the document could not be read or parsed
+	 */
+	static FeedUpdate parseStreaming(InputStream inputStream, PreviousPageLinkListener previousPageLinkListener) throws IOException
+	{
+		String feedID = null;
+		String previousPageURL = null;
+		long feedUpdated = 0;
+		List<FeedEntry> entries = new ArrayList<FeedEntry>();
+
+		try
+		{
+			XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(inputStream);
+
+			try
+			{
+				int depth = 0;
+				boolean insideEntry = false;
+				String entryID = null;
+				long entryUpdated = 0;
+				long entryPublished = 0;
+
+				while(reader.hasNext())
+				{
+					int event = reader.next();
+
+					if(event == XMLStreamConstants.START_ELEMENT)
+					{
+						depth++;
+
+						if(!ATOM_NAMESPACE.equals(reader.getNamespaceURI()))
+						{
+							continue;
+						}
+
+						String localName = reader.getLocalName();
+
+						if(depth == 2 && localName.equals("entry"))
+						{
+							insideEntry = true;
+							entryID = null;
+							entryUpdated = 0;
+							entryPublished = 0;
+						}
+						else if(depth == 2 && localName.equals("updated"))
+						{
+							feedUpdated = parseDateTime(reader.getElementText());
+							depth--;
+						}
+						else if(depth == 2 && localName.equals("id"))
+						{
+							feedID = reader.getElementText().trim();
+							depth--;
+						}
+						else if(depth == 2 && localName.equals("link") && "previous".equals(reader.getAttributeValue(null, "rel")))
+						{
+							previousPageURL = reader.getAttributeValue(null, "href");
+
+							if(previousPageURL != null && previousPageLinkListener != null)
+							{
+								previousPageLinkListener.onPreviousPageLink(previousPageURL);
+							}
+						}
+						else if(insideEntry && depth == 3 && localName.equals("id"))
+						{
+							entryID = reader.getElementText().trim();
+							depth--;
+						}
+						else if(insideEntry && depth == 3 && localName.equals("updated"))
+						{
+							entryUpdated = parseDateTime(reader.getElementText());
+							depth--;
+						}
+						else if(insideEntry && depth == 3 && localName.equals("published"))
+						{
+							entryPublished = parseDateTime(reader.getElementText());
+							depth--;
+						}
+					}
+					else if(event == XMLStreamConstants.END_ELEMENT)
+					{
+						if(insideEntry && depth == 2)
+						{
+							if(entryID != null)
+							{
+								entries.add(new FeedEntry(entryID, entryUpdated != 0 ? entryUpdated : entryPublished));
+							}
+
+							insideEntry = false;
+						}
+
+						depth--;
+					}
+				}
+			}
+			finally
+			{
+				reader.close();
+			}
+		}
+		catch(XMLStreamException e)
+		{
+			throw new IOException("The Atom feed document could not be parsed.", e);
+		}
+
+		if(feedUpdated != 0)
+		{
+			for(ListIterator<FeedEntry> iterator = entries.listIterator(); iterator.hasNext();)
+			{
+				FeedEntry entry = iterator.next();
+
+				if(entry.getUpdated() == 0)
+				{
+					iterator.set(new FeedEntry(entry.getId(), feedUpdated));
+				}
+			}
+		}
+
+		return new FeedUpdate(feedID, entries, previousPageURL, null);
+	}
+
+	/**
+	 * Parses the {@code Atom} {@code Feed} document which is provided by the
+	 * given {@link InputStream} with {@code ROME}. The resulting
+	 * {@link FeedUpdate} contains the complete {@link Feed}.
+	 * 
+	 * @param inputStream The {@code InputStream}
+	 * @return The resulting {@code FeedUpdate}
+	 * @throws IOException If the document could not be read or parsed
+	 */
+	public static FeedUpdate parseWithROME(InputStream inputStream) throws IOException
+	{
+		Feed feed;
+
+		try
+		{
+			feed = (Feed) new WireFeedInput().build(new XmlReader(inputStream));
+		}
+		catch(FeedException e)
+		{
+			throw new IOException("The Atom feed document could not be parsed.", e);
+		}
+
+		@SuppressWarnings("unchecked")
+		List<Entry> romeEntries = feed.getEntries();
+
+		List<FeedEntry> entries = new ArrayList<FeedEntry>(romeEntries.size());
+
+		for(Entry entry : romeEntries)
+		{
+			long updated = 0;
+
+			if(entry.getUpdated() != null)
+			{
+				updated = entry.getUpdated().getTime();
+			}
+			else if(entry.getPublished() != null)
+			{
+				updated = entry.getPublished().getTime();
+			}
+			else if(feed.getUpdated() != null)
+			{
+				updated = feed.getUpdated().getTime();
+			}
+
+			entries.add(new FeedEntry(entry.getId(), updated));
+		}
+
+		String previousPageURL = null;
+
+		@SuppressWarnings("unchecked")
+		List<Link> links = feed.getOtherLinks();
+
+		for(Link link : links)
+		{
+			if("previous".equals(link.getRel()))
+			{
+				previousPageURL = link.getHref();
+
+				break;
+			}
+		}
+
+		return new FeedUpdate(feed.getId(), entries, previousPageURL, feed);
+	}
+
+	/**
+	 * Parses the given {@code Atom} date construct (RFC 3339).
+	 * 
+	 * @param text The date construct
+	 * @return The time in milliseconds since January 1, 1970, 00:00:00 GMT or
+	 *         {@code 0} if the date construct could not be parsed
+	 */
+	private static long parseDateTime(String text)
+	{
+		try
+		{
+			return dateTimeParser.parseMillis(text.trim());
+		}
+		catch(IllegalArgumentException e)
+		{
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package org.diretto.api.client.main.feed.atom;
+
+import com.sun.syndication.feed.atom.Feed;
+
+/**
+ * This class represents the {@code CrawlResult} of a {@link FallbackCrawler},
+ * which contains the latest updated new {@link FeedEntry} and states whether
+ * the crawl has reached the latest known entry (or the first page of the
+ * {@link Feed}). If the latest updated {@code FeedEntry} of an incomplete crawl
+ * is used as new watermark, the gap which the crawl has left behind is skipped.
+ * 
+ * @author Tobias Schlecht
+ */
+public final class CrawlResult
+{
+	private final FeedEntry latestEntry;
+	private final boolean complete;
+
+	/**
+	 * Constructs a {@link CrawlResult}.
+	 * 
+	 * @param latestEntry The latest updated new {@code FeedEntry} or
+	 *        {@code null} if no new {@code FeedEntry} has been found
+	 * @param complete {@code true} if the crawl has reached the latest known
+	 *        entry
+	 */
+	CrawlResult(FeedEntry latestEntry, boolean complete)
+	{
+		this.latestEntry = latestEntry;
+		this.complete = complete;
+	}
+
+	/**
+	 * Returns the latest updated new {@link FeedEntry}.
+	 * 
+	 * @return The latest updated new {@code FeedEntry} or {@code null} if no
+	 *         new {@code FeedEntry} has been found
+	 */
+	public FeedEntry getLatestEntry()
+	{
+		return latestEntry;
+	}
+
+	/**
+	 * Returns whether the crawl has reached the latest known entry, so that
+	 * there is no gap between the latest known entry and the crawled entries.
+	 * 
+	 * @return {@code true} if the crawl is complete
+	 */
+	public boolean isComplete()
+	{
+		return complete;
+	}
+}
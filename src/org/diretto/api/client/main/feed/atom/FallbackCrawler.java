@@ -0,0 +1,341 @@
+package org.diretto.api.client.main.feed.atom;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.configuration.XMLConfiguration;
+import org.diretto.api.client.main.feed.dispatch.DaemonThreadFactory;
+import org.diretto.api.client.main.feed.http.FeedHttpClient;
+import org.diretto.api.client.main.feed.http.FeedHttpResponse;
+
+import com.sun.syndication.feed.atom.Feed;
+
+/**
+ * This class represents a {@code FallbackCrawler}, which serves as fallback in
+ * the case that a hub fails (e.g. if the hub is not able to deliver the new
+ * contents fast enough and therefore the number of entries which should be
+ * updated exceeds the number of entries which are displayed on one {@link Feed}
+ * page). <br/><br/>
+ * 
+ * The crawler iteratively follows the links to the previous {@code Feed} pages
+ * until it reaches the latest known entry. As soon as the parser has read the
+ * link to the previous page, the previous page is requested in the background,
+ * so that fetching the previous page overlaps with transferring and parsing the
+ * current one. The crawl is limited by a maximum number of pages and by a time
+ * budget. <br/><br/>
+ * 
+ * The new entries are not handed over page by page while the crawl is running,
+ * but after the crawl, starting with the oldest page, so that they are
+ * delivered in chronological order. The latest page is only known to be
+ * complete when the known entry has been reached, hence streaming the pages as
+ * they complete would deliver them newest first. The pages are fetched with the
+ * shared {@link FeedHttpClient}, so that the connection to the service is kept
+ * alive between the pages and the pages are transferred compressed.
+ * 
+ * @author Tobias Schlecht
+ */
+public final class FallbackCrawler
+{
+	private final FeedHttpClient feedHttpClient;
+	private final int maxPages;
+	private final long timeBudget;
+
+	private final ExecutorService prefetcher = Executors.newCachedThreadPool(new DaemonThreadFactory("FeedService-FallbackCrawler-"));
+
+	/**
+	 * Constructs a {@link FallbackCrawler}.
+	 * 
+	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 * @param feedHttpClient The {@code FeedHttpClient} which is used to fetch
+	 *        the {@code Feed} pages
+	 */
+	public FallbackCrawler(XMLConfiguration xmlConfiguration, FeedHttpClient feedHttpClient)
+	{
+		this.feedHttpClient = feedHttpClient;
+
+		maxPages = Math.max(1, xmlConfiguration.getInt("pubsubhubbub/fallback-crawler/max-pages"));
+		timeBudget = xmlConfiguration.getLong("pubsubhubbub/fallback-crawler/time-budget");
+	}
+
+	/**
+	 * Crawls the {@link Feed} with the given {@code URL}, starting with the
+	 * page which contains the latest entries. The crawl stops as soon as an
+	 * entry which has been updated before the given time has been reached.
+	 * Entries which have been updated at exactly the given time are included
+	 * (except for the entry with the given {@code ID}), so that the receiver
+	 * has to suppress duplicates by their {@code ID}s. Entries without any time
+	 * (see {@link AtomParser}) are handed over as new entries and do not stop
+	 * the crawl. <br/><br/>
+	 * 
+	 * After the crawl the new entries are handed over to the given
+	 * {@link FallbackPageHandler} page by page, starting with the oldest page.
+	 * If the crawl has been stopped early (because of the page limit, the time
+	 * budget or a failed request), the entries of the crawled pages are handed
+	 * over nevertheless, but the {@link CrawlResult} is marked as incomplete.
+	 * 
+	 * @param feedURL The {@code URL} ({@code String} representation) of the
+	 *        {@code Feed}
+	 * @param entryID The {@code ID} of the latest known entry or {@code null}
+	 * @param minUpdated The time in milliseconds since January 1, 1970,
+	 *        00:00:00 GMT after which the entries have to be updated
+	 * @param pageHandler The {@code FallbackPageHandler}
+	 * @return The {@code CrawlResult}
+	 */
+	public CrawlResult crawl(String feedURL, String entryID, long minUpdated, FallbackPageHandler pageHandler)
+	{
+		long deadline = System.currentTimeMillis() + timeBudget;
+
+		List<List<FeedEntry>> pages = new ArrayList<List<FeedEntry>>();
+		boolean complete = false;
+
+		PageFetch pageFetch = new PageFetch(feedURL, 0, deadline);
+		Future<FeedUpdate> nextPage = prefetcher.submit(pageFetch);
+
+		for(int pageIndex = 0; nextPage != null; pageIndex++)
+		{
+			FeedUpdate page;
+
+			try
+			{
+				page = nextPage.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+			}
+			catch(TimeoutException e)
+			{
+				nextPage.cancel(true);
+				pageFetch.cancel();
+
+				System.out.println("[FeedService FallbackCrawler] Time budget exceeded: " + feedURL);
+
+				break;
+			}
+			catch(ExecutionException e)
+			{
+				pageFetch.cancel();
+
+				e.getCause().printStackTrace();
+
+				break;
+			}
+			catch(InterruptedException e)
+			{
+				nextPage.cancel(true);
+				pageFetch.cancel();
+
+				Thread.currentThread().interrupt();
+
+				break;
+			}
+
+			nextPage = null;
+
+			List<FeedEntry> newEntries = new ArrayList<FeedEntry>();
+			boolean knownEntryReached = false;
+
+			for(FeedEntry entry : page.getEntries())
+			{
+				if(entry.getUpdated() != 0 && entry.getUpdated() < minUpdated)
+				{
+					knownEntryReached = true;
+
+					break;
+				}
+
+				if(entry.getUpdated() == minUpdated && entry.getId().equals(entryID))
+				{
+					continue;
+				}
+
+				newEntries.add(entry);
+			}
+
+			pages.add(newEntries);
+
+			if(knownEntryReached || page.getPreviousPageURL() == null)
+			{
+				pageFetch.cancel();
+
+				complete = true;
+			}
+			else if(pageFetch.getPreviousPage() != null && System.currentTimeMillis() < deadline)
+			{
+				nextPage = pageFetch.getPreviousPage();
+				pageFetch = pageFetch.getPreviousPageFetch();
+			}
+			else
+			{
+				pageFetch.cancel();
+
+				System.out.println("[FeedService FallbackCrawler] Page limit or time budget exceeded: " + feedURL);
+			}
+		}
+
+		FeedEntry latestEntry = null;
+
+		for(int pageIndex = pages.size() - 1; pageIndex >= 0; pageIndex--)
+		{
+			List<FeedEntry> newEntries = pages.get(pageIndex);
+
+			if(!newEntries.isEmpty())
+			{
+				latestEntry = newEntries.get(0);
+
+				pageHandler.onPage(newEntries, pageIndex);
+			}
+		}
+
+		return new CrawlResult(latestEntry, complete);
+	}
+
+	/**
+	 * Resolves the given (possibly relative) {@code URL} against the given base
+	 * {@code URL}.
+	 * 
+	 * @param baseURL The base {@code URL}
+	 * @param url The {@code URL} to resolve
+	 * @return The absolute {@code URL} or {@code null} if the {@code URL} is
+	 *         malformed
+	 */
+	private static String resolve(String baseURL, String url)
+	{
+		try
+		{
+			return new URL(new URL(baseURL), url).toExternalForm();
+		}
+		catch(MalformedURLException e)
+		{
+			e.printStackTrace();
+
+			return null;
+		}
+	}
+
+	/**
+	 * This class represents the {@code PageFetch} of a single {@link Feed}
+	 * page, which fetches and parses the page and requests the previous page as
+	 * soon as the link to it has been read (unless the page limit or the time
+	 * budget would be exceeded).
+	 * 
+	 * @author Tobias Schlecht
+	 */
+	private final class PageFetch implements Callable<FeedUpdate>, PreviousPageLinkListener
+	{
+		private final String pageURL;
+		private final int pageIndex;
+		private final long deadline;
+
+		private PageFetch previousPageFetch = null;
+		private Future<FeedUpdate> previousPage = null;
+		private boolean cancelled = false;
+
+		/**
+		 * Constructs a {@link PageFetch}.
+		 * 
+		 * @param pageURL The {@code URL} ({@code String} representation) of the
+		 *        page
+		 * @param pageIndex The index of the page
+		 * @param deadline The end of the time budget of the crawl
+		 */
+		private PageFetch(String pageURL, int pageIndex, long deadline)
+		{
+			this.pageURL = pageURL;
+			this.pageIndex = pageIndex;
+			this.deadline = deadline;
+		}
+
+		@Override
+		public FeedUpdate call() throws Exception
+		{
+			FeedHttpResponse response = feedHttpClient.get(pageURL);
+
+			if(response.getStatusCode() != 200)
+			{
+				throw new IOException("The feed page could not be fetched (HTTP " + response.getStatusCode() + "): " + pageURL);
+			}
+
+			InputStream inputStream = response.getInputStream();
+
+			try
+			{
+				return AtomParser.parseStreaming(inputStream, this);
+			}
+			finally
+			{
+				inputStream.close();
+			}
+		}
+
+		@Override
+		public synchronized void onPreviousPageLink(String previousPageURL)
+		{
+			if(cancelled || previousPage != null || pageIndex + 1 >= maxPages || System.currentTimeMillis() >= deadline)
+			{
+				return;
+			}
+
+			String url = resolve(pageURL, previousPageURL);
+
+			if(url != null)
+			{
+				previousPageFetch = new PageFetch(url, pageIndex + 1, deadline);
+				previousPage = prefetcher.submit(previousPageFetch);
+			}
+		}
+
+		/**
+		 * Returns the {@code Future} of the previous page.
+		 * 
+		 * @return The {@code Future} or {@code null} if the previous page has
+		 *         not been requested
+		 */
+		private synchronized Future<FeedUpdate> getPreviousPage()
+		{
+			return previousPage;
+		}
+
+		/**
+		 * Returns the {@link PageFetch} of the previous page.
+		 * 
+		 * @return The {@code PageFetch} or {@code null} if the previous page
+		 *         has not been requested
+		 */
+		private synchronized PageFetch getPreviousPageFetch()
+		{
+			return previousPageFetch;
+		}
+
+		/**
+		 * Cancels the requests of all previous pages which have been requested
+		 * in advance.
+		 */
+		private void cancel()
+		{
+			PageFetch pageFetch = this;
+
+			while(pageFetch != null)
+			{
+				synchronized(pageFetch)
+				{
+					pageFetch.cancelled = true;
+
+					if(pageFetch.previousPage != null)
+					{
+						pageFetch.previousPage.cancel(true);
+					}
+
+					pageFetch = pageFetch.previousPageFetch;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package org.diretto.api.client.main.feed.atom;
+
+import java.util.List;
+
+import com.sun.syndication.feed.atom.Feed;
+
+/**
+ * This interface represents a handler for the {@link Feed} pages which are
+ * recovered by a {@link FallbackCrawler}.
+ * 
+ * @author Tobias Schlecht
+ */
+public interface FallbackPageHandler
+{
+	/**
+	 * Called for each crawled {@link Feed} page with new entries after the
+	 * crawl, starting with the oldest page.
+	 * 
+	 * @param entries The new {@code FeedEntry}s of the page, starting with the
+	 *        latest updated {@code FeedEntry}
+	 * @param pageIndex The index of the page, whereby the page with the latest
+	 *        entries has the index {@code 0}
+	 */
+	void onPage(List<FeedEntry> entries, int pageIndex);
+}
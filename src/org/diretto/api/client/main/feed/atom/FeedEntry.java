@@ -0,0 +1,54 @@
+package org.diretto.api.client.main.feed.atom;
+
+/**
+ * This class represents a compact {@code FeedEntry}, which contains only the
+ * parts of an {@code Atom} {@code Feed} entry which are necessary for the
+ * processing of {@code Feed} updates: The {@code ID} and the update time.
+ * 
+ * @author Tobias Schlecht
+ */
+public final class FeedEntry
+{
+	private final String id;
+	private final long updated;
+
+	/**
+	 * Constructs a {@link FeedEntry}.
+	 * 
+	 * @param id The {@code ID} of the entry
+	 * @param updated The update time of the entry in milliseconds since January
+	 *        1, 1970, 00:00:00 GMT
+	 */
+	public FeedEntry(String id, long updated)
+	{
+		this.id = id;
+		this.updated = updated;
+	}
+
+	/**
+	 * Returns the {@code ID} of the {@link FeedEntry}.
+	 * 
+	 * @return The {@code ID}
+	 */
+	public String getId()
+	{
+		return id;
+	}
+
+	/**
+	 * Returns the update time of the {@link FeedEntry} in milliseconds since
+	 * January 1, 1970, 00:00:00 GMT.
+	 * 
+	 * @return The update time
+	 */
+	public long getUpdated()
+	{
+		return updated;
+	}
+
+	@Override
+	public String toString()
+	{
+		return id;
+	}
+}
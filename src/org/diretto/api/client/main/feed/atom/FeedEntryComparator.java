@@ -0,0 +1,42 @@
+package org.diretto.api.client.main.feed.atom;
+
+import java.util.Comparator;
+
+/**
+ * This class represents a {@link Comparator}, which orders {@link FeedEntry}s
+ * chronologically by their update time. {@code FeedEntry}s with the same update
+ * time are ordered by their {@code ID}. <br/><br/>
+ * 
+ * <i>Annotation:</i> <u>Singleton Pattern</u>
+ * 
+ * @author Tobias Schlecht
+ */
+public final class FeedEntryComparator implements Comparator<FeedEntry>
+{
+	public static final FeedEntryComparator INSTANCE = new FeedEntryComparator();
+
+	/**
+	 * Constructs the sole instance of the {@link FeedEntryComparator}.
+	 * <br/><br/>
+	 * 
+	 * <i>Annotation:</i> <u>Singleton Pattern</u>
+	 */
+	private FeedEntryComparator()
+	{
+	}
+
+	@Override
+	public int compare(FeedEntry entry1, FeedEntry entry2)
+	{
+		if(entry1.getUpdated() < entry2.getUpdated())
+		{
+			return -1;
+		}
+		else if(entry1.getUpdated() > entry2.getUpdated())
+		{
+			return 1;
+		}
+
+		return entry1.getId().compareTo(entry2.getId());
+	}
+}
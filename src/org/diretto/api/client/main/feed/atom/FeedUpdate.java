@@ -0,0 +1,89 @@
+package org.diretto.api.client.main.feed.atom;
+
+import java.util.List;
+
+import com.sun.syndication.feed.atom.Feed;
+
+/**
+ * This class represents a {@code FeedUpdate}, which contains the {@code ID} of
+ * an {@code Atom} {@code Feed}, the {@link FeedEntry}s of the update and the
+ * {@code URL} of the previous {@code Feed} page (if there is one). <br/><br/>
+ * 
+ * If the update has been parsed with {@code ROME}, the complete {@link Feed} is
+ * available as well.
+ * 
+ * @author Tobias Schlecht
+ */
+public final class FeedUpdate
+{
+	private final String feedID;
+	private final List<FeedEntry> entries;
+	private final String previousPageURL;
+	private final Feed feed;
+
+	/**
+	 * Constructs a {@link FeedUpdate}.
+	 * 
+	 * @param feedID The {@code ID} of the {@code Feed}
+	 * @param entries The {@code FeedEntry}s in the order of their appearance
+	 * @param previousPageURL The {@code URL} of the previous {@code Feed} page
+	 *        or {@code null} if there is no previous page
+	 * @param feed The complete {@code Feed} or {@code null} if it is not
+	 *        available
+	 */
+	public FeedUpdate(String feedID, List<FeedEntry> entries, String previousPageURL, Feed feed)
+	{
+		this.feedID = feedID;
+		this.entries = entries;
+		this.previousPageURL = previousPageURL;
+		this.feed = feed;
+	}
+
+	/**
+	 * Returns the {@code ID} of the {@link Feed}.
+	 * 
+	 * @return The {@code ID} of the {@code Feed}
+	 */
+	public String getFeedID()
+	{
+		return feedID;
+	}
+
+	/**
+	 * Returns the {@link FeedEntry}s in the order of their appearance within
+	 * the {@link Feed}. <br/><br/>
+	 * 
+	 * <i>Annotation:</i> The returned {@code List} is not a copy and may be
+	 * modified by the receiver of the {@code FeedUpdate}.
+	 * 
+	 * @return A {@code List} with the {@code FeedEntry}s
+	 */
+	public List<FeedEntry> getEntries()
+	{
+		return entries;
+	}
+
+	/**
+	 * Returns the {@code URL} of the previous {@link Feed} page, which is
+	 * referenced by the link with the relation {@code previous}. The
+	 * {@code URL} may be relative.
+	 * 
+	 * @return The {@code URL} of the previous {@code Feed} page or {@code null}
+	 *         if there is no previous page
+	 */
+	public String getPreviousPageURL()
+	{
+		return previousPageURL;
+	}
+
+	/**
+	 * Returns the complete {@link Feed}, if the {@link FeedUpdate} has been
+	 * parsed with {@code ROME}.
+	 * 
+	 * @return The {@code Feed} or {@code null} if it is not available
+	 */
+	public Feed getFeed()
+	{
+		return feed;
+	}
+}
@@ -0,0 +1,22 @@
+package org.diretto.api.client.main.feed.atom;
+
+import com.sun.syndication.feed.atom.Feed;
+
+/**
+ * This interface represents a listener, which is informed by the
+ * {@link AtomParser} as soon as the link to the previous {@link Feed} page has
+ * been read, so that the previous page can be requested before the rest of the
+ * current page has been parsed.
+ * 
+ * @author Tobias Schlecht
+ */
+interface PreviousPageLinkListener
+{
+	/**
+	 * Called when the link to the previous {@link Feed} page has been read.
+	 * 
+	 * @param previousPageURL The {@code URL} of the previous {@code Feed} page
+	 *        (possibly relative)
+	 */
+	void onPreviousPageLink(String previousPageURL);
+}
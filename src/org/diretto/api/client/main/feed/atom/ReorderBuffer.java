@@ -0,0 +1,185 @@
+package org.diretto.api.client.main.feed.atom;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.diretto.api.client.main.feed.dispatch.DaemonThreadFactory;
+
+import com.sun.syndication.feed.atom.Feed;
+
+/**
+ * This {@code abstract} class represents a {@code ReorderBuffer}, which
+ * restores the chronological order of the {@link FeedEntry}s of one
+ * {@link Feed}, even if the {@code Feed} updates arrive out of order.
+ * <br/><br/>
+ * 
+ * Every added {@code FeedEntry} is held for the configured reorder window. When
+ * the window of an update has elapsed, the watermark advances to the latest
+ * update time of that update and all held {@code FeedEntry}s up to the
+ * watermark are released in chronological order. Since the releases are
+ * executed by a single {@code Thread}, the released {@code FeedEntry}s are
+ * ordered across all releases, unless a {@code FeedEntry} arrives later than
+ * the reorder window. <br/><br/>
+ * 
+ * The number of held {@code FeedEntry}s is bounded by the configured capacity.
+ * If the {@code ReorderBuffer} is full, {@link #add(List)} waits until the
+ * releasing {@code Thread} has made room. Thus the {@code Thread} of the
+ * {@code Feed} route stops taking {@code Feed} updates, its queue fills up and
+ * the hub is asked to retry later (back pressure).
+ * 
+ * @author Tobias Schlecht
+ */
+public abstract class ReorderBuffer
+{
+	private final long window;
+	private final int capacity;
+	private final ScheduledExecutorService releaser;
+
+	private final PriorityQueue<FeedEntry> heldEntries = new PriorityQueue<FeedEntry>(64, FeedEntryComparator.INSTANCE);
+	private final Queue<Long> pendingWatermarks = new LinkedList<Long>();
+
+	private long watermark = Long.MIN_VALUE;
+
+	private final Runnable releaseTask = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			release();
+		}
+	};
+
+	/**
+	 * Constructs a {@link ReorderBuffer}.
+	 * 
+	 * @param window The reorder window in milliseconds
+	 * @param capacity The maximum number of held {@code FeedEntry}s
+	 * @param name The name of the {@code Feed}, which is used for the name of
+	 *        the releasing {@code Thread}
+	 */
+	public ReorderBuffer(long window, int capacity, String name)
+	{
+		this.window = Math.max(0, window);
+		this.capacity = Math.max(1, capacity);
+
+		releaser = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("FeedService-Reorder-" + name + "-"));
+	}
+
+	/**
+	 * Called when {@link FeedEntry}s have been released.
+	 * 
+	 * @param entries The released {@code FeedEntry}s, starting with the latest
+	 *        updated {@code FeedEntry}
+	 */
+	protected abstract void onRelease(List<FeedEntry> entries);
+
+	/**
+	 * Adds the {@link FeedEntry}s of a {@link Feed} update. If the
+	 * {@code ReorderBuffer} is full, the calling {@code Thread} waits until
+	 * enough {@code FeedEntry}s have been released. A {@code Feed} update which
+	 * exceeds the capacity on its own is added as soon as the
+	 * {@code ReorderBuffer} is empty.
+	 * 
+	 * @param entries The {@code FeedEntry}s in any order
+	 */
+	public void add(List<FeedEntry> entries)
+	{
+		if(entries.isEmpty())
+		{
+			return;
+		}
+
+		long latestUpdated = Long.MIN_VALUE;
+
+		synchronized(this)
+		{
+			while(!heldEntries.isEmpty() && heldEntries.size() + entries.size() > capacity)
+			{
+				try
+				{
+					wait();
+				}
+				catch(InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+
+					break;
+				}
+			}
+
+			for(FeedEntry entry : entries)
+			{
+				heldEntries.add(entry);
+
+				latestUpdated = Math.max(latestUpdated, entry.getUpdated());
+			}
+
+			pendingWatermarks.add(Long.valueOf(latestUpdated));
+		}
+
+		releaser.schedule(releaseTask, window, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Returns the number of {@link FeedEntry}s which are currently held.
+	 * 
+	 * @return The number of held {@code FeedEntry}s
+	 */
+	public synchronized int getHeldEntryCount()
+	{
+		return heldEntries.size();
+	}
+
+	/**
+	 * Advances the watermark to the latest update time of the oldest pending
+	 * update and releases all held {@link FeedEntry}s up to the watermark.
+	 * Since all updates are held for the same window, the release tasks are
+	 * executed in the order of the arrival of the updates.
+	 */
+	private void release()
+	{
+		List<FeedEntry> releasedEntries;
+
+		synchronized(this)
+		{
+			Long pendingWatermark = pendingWatermarks.poll();
+
+			if(pendingWatermark != null)
+			{
+				watermark = Math.max(watermark, pendingWatermark.longValue());
+			}
+
+			if(heldEntries.isEmpty() || heldEntries.peek().getUpdated() > watermark)
+			{
+				return;
+			}
+
+			releasedEntries = new ArrayList<FeedEntry>();
+
+			while(!heldEntries.isEmpty() && heldEntries.peek().getUpdated() <= watermark)
+			{
+				releasedEntries.add(heldEntries.poll());
+			}
+
+			notifyAll();
+		}
+
+		Collections.reverse(releasedEntries);
+
+		try
+		{
+			onRelease(releasedEntries);
+		}
+		catch(RuntimeException e)
+		{
+			e.printStackTrace();
+		}
+	}
+}
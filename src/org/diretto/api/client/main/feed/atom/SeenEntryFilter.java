@@ -0,0 +1,209 @@
+package org.diretto.api.client.main.feed.atom;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class represents a {@code SeenEntryFilter}, which remembers the
+ * {@code ID}s of the most recently seen {@link FeedEntry}s of one {@code Feed}
+ * and thereby allows to suppress duplicates (e.g. in the case that a hub
+ * redelivers an update). <br/><br/>
+ * 
+ * The filter is bounded: Only 64 bit hashes of the {@code ID}s are stored in a
+ * ring buffer with a fixed capacity, so that the oldest hash is evicted as soon
+ * as the capacity has been reached. The hashes are indexed by an open
+ * addressing hash table, so that both the lookup and the eviction take constant
+ * time.
+ * 
+ * @author Tobias Schlecht
+ */
+public final class SeenEntryFilter
+{
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private final long[] ring;
+	private final long[] table;
+	private final int mask;
+
+	private int ringIndex = 0;
+	private int size = 0;
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+
+	/**
+	 * Constructs a {@link SeenEntryFilter}.
+	 * 
+	 * @param capacity The maximum number of remembered {@code ID}s
+	 */
+	public SeenEntryFilter(int capacity)
+	{
+		capacity = Math.max(1, capacity);
+
+		ring = new long[capacity];
+		table = new long[Integer.highestOneBit(2 * capacity - 1) << 1];
+		mask = table.length - 1;
+	}
+
+	/**
+	 * Marks the given {@code ID} as seen.
+	 * 
+	 * @param id The {@code ID} of a {@link FeedEntry}
+	 * @return {@code true} if the {@code ID} has not been seen before and
+	 *         {@code false} if it is a duplicate
+	 */
+	public boolean markSeen(String id)
+	{
+		long hash = hash(id);
+
+		synchronized(this)
+		{
+			if(indexOf(hash) >= 0)
+			{
+				hitCount.incrementAndGet();
+
+				return false;
+			}
+
+			if(size == ring.length)
+			{
+				remove(ring[ringIndex]);
+			}
+			else
+			{
+				size++;
+			}
+
+			ring[ringIndex] = hash;
+			ringIndex = (ringIndex + 1) % ring.length;
+
+			insert(hash);
+		}
+
+		missCount.incrementAndGet();
+
+		return true;
+	}
+
+	/**
+	 * Returns the number of {@code ID}s which have been identified as
+	 * duplicates.
+	 * 
+	 * @return The number of hits
+	 */
+	public long getHitCount()
+	{
+		return hitCount.get();
+	}
+
+	/**
+	 * Returns the number of {@code ID}s which have not been seen before.
+	 * 
+	 * @return The number of misses
+	 */
+	public long getMissCount()
+	{
+		return missCount.get();
+	}
+
+	/**
+	 * Calculates the 64 bit {@code FNV-1a} hash of the given {@code ID}. The
+	 * value {@code 0} is reserved for empty slots of the hash table and is
+	 * therefore never returned.
+	 * 
+	 * @param id The {@code ID}
+	 * @return The hash
+	 */
+	private static long hash(String id)
+	{
+		long hash = FNV_OFFSET_BASIS;
+
+		for(int i = 0; i < id.length(); i++)
+		{
+			hash ^= id.charAt(i);
+			hash *= FNV_PRIME;
+		}
+
+		if(hash == 0)
+		{
+			return 1;
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Returns the home slot of the given hash within the hash table.
+	 * 
+	 * @param hash The hash
+	 * @return The home slot
+	 */
+	private int slot(long hash)
+	{
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+
+	/**
+	 * Returns the slot of the given hash within the hash table.
+	 * 
+	 * @param hash The hash
+	 * @return The slot or {@code -1} if the hash is not contained
+	 */
+	private int indexOf(long hash)
+	{
+		for(int index = slot(hash); table[index] != 0; index = (index + 1) & mask)
+		{
+			if(table[index] == hash)
+			{
+				return index;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Inserts the given hash into the hash table.
+	 * 
+	 * @param hash The hash
+	 */
+	private void insert(long hash)
+	{
+		int index = slot(hash);
+
+		while(table[index] != 0)
+		{
+			index = (index + 1) & mask;
+		}
+
+		table[index] = hash;
+	}
+
+	/**
+	 * Removes the given hash from the hash table. The subsequent hashes of the
+	 * same probe sequence are shifted backwards, so that no deletion markers
+	 * are necessary.
+	 * 
+	 * @param hash The hash
+	 */
+	private void remove(long hash)
+	{
+		int gap = indexOf(hash);
+
+		if(gap < 0)
+		{
+			return;
+		}
+
+		for(int index = (gap + 1) & mask; table[index] != 0; index = (index + 1) & mask)
+		{
+			if(((index - slot(table[index])) & mask) >= ((index - gap) & mask))
+			{
+				table[gap] = table[index];
+				gap = index;
+			}
+		}
+
+		table[gap] = 0;
+	}
+}
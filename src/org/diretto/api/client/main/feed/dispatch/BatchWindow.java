@@ -0,0 +1,176 @@
+package org.diretto.api.client.main.feed.dispatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+import org.apache.commons.configuration.XMLConfiguration;
+
+/**
+ * This {@code abstract} class represents a {@code BatchWindow}, which collects
+ * items and hands them over in batches. <br/><br/>
+ * 
+ * A batch is completed as soon as the configured maximum batch size has been
+ * reached or as soon as the configured maximum delay has elapsed since the
+ * first item of the batch has been added. If the maximum delay is {@code 0},
+ * every call of {@link #add(List)} results in (at least) one batch. <br/><br/>
+ * 
+ * The completed batches are handed over outside the monitor of the
+ * {@code BatchWindow}. Hence batches which are completed by different
+ * {@code Thread}s at the same time may be handed over in either order.
+ * 
+ * @author Tobias Schlecht
+ * 
+ * @param <T> The type of the items
+ */
+public abstract class BatchWindow<T>
+{
+	private final Dispatcher dispatcher;
+	private final int maxSize;
+	private final long maxDelay;
+
+	private List<T> batch;
+	private ScheduledFuture<?> scheduledFlush = null;
+
+	private final Runnable flushTask = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			flush();
+		}
+	};
+
+	/**
+	 * Constructs a {@link BatchWindow}.
+	 * 
+	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 * @param dispatcher The {@code Dispatcher} which is used for the timing
+	 */
+	public BatchWindow(XMLConfiguration xmlConfiguration, Dispatcher dispatcher)
+	{
+		this(dispatcher, xmlConfiguration.getInt("dispatcher/batch-window/max-size"), xmlConfiguration.getLong("dispatcher/batch-window/max-delay"));
+	}
+
+	/**
+	 * Constructs a {@link BatchWindow} with the given bounds.
+	 * 
+	 * @param dispatcher The {@code Dispatcher} which is used for the timing
+	 * @param maxSize The maximum number of items per batch
+	 * @param maxDelay The maximum delay of a batch in milliseconds
+	 */
+	public BatchWindow(Dispatcher dispatcher, int maxSize, long maxDelay)
+	{
+		this.dispatcher = dispatcher;
+		this.maxSize = Math.max(1, maxSize);
+		this.maxDelay = Math.max(0, maxDelay);
+
+		batch = new ArrayList<T>();
+	}
+
+	/**
+	 * Called when a batch has been completed.
+	 * 
+	 * @param batch The items of the batch in the order in which they have been
+	 *        added
+	 */
+	protected abstract void onBatch(List<T> batch);
+
+	/**
+	 * Adds the given items to the current batch. The batches which are
+	 * completed thereby are handed over after the monitor of the
+	 * {@code BatchWindow} has been released.
+	 * 
+	 * @param items The items to add
+	 */
+	public void add(List<T> items)
+	{
+		List<List<T>> completedBatches = new ArrayList<List<T>>(1);
+
+		synchronized(this)
+		{
+			for(T item : items)
+			{
+				batch.add(item);
+
+				if(batch.size() >= maxSize)
+				{
+					completedBatches.add(complete());
+				}
+			}
+
+			if(!batch.isEmpty())
+			{
+				if(maxDelay == 0)
+				{
+					completedBatches.add(complete());
+				}
+				else if(scheduledFlush == null)
+				{
+					scheduledFlush = dispatcher.schedule(flushTask, maxDelay);
+				}
+			}
+		}
+
+		for(List<T> completedBatch : completedBatches)
+		{
+			onBatch(completedBatch);
+		}
+	}
+
+	/**
+	 * Completes the current batch, unless it is empty. The batch is handed over
+	 * after the monitor of the {@code BatchWindow} has been released, so that a
+	 * slow {@link #onBatch(List)} never blocks the other callers or the timer
+	 * {@code Thread} of the {@link Dispatcher}.
+	 */
+	public void flush()
+	{
+		List<T> completedBatch;
+
+		synchronized(this)
+		{
+			if(batch.isEmpty())
+			{
+				cancelScheduledFlush();
+
+				return;
+			}
+
+			completedBatch = complete();
+		}
+
+		onBatch(completedBatch);
+	}
+
+	/**
+	 * Swaps the current batch for a new one and cancels the scheduled flush.
+	 * The caller has to hold the monitor of the {@link BatchWindow}.
+	 * 
+	 * @return The completed batch
+	 */
+	private List<T> complete()
+	{
+		cancelScheduledFlush();
+
+		List<T> completedBatch = batch;
+
+		batch = new ArrayList<T>();
+
+		return completedBatch;
+	}
+
+	/**
+	 * Cancels the scheduled flush, if there is one. The caller has to hold the
+	 * monitor of the {@link BatchWindow}.
+	 */
+	private void cancelScheduledFlush()
+	{
+		if(scheduledFlush != null)
+		{
+			scheduledFlush.cancel(false);
+
+			scheduledFlush = null;
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package org.diretto.api.client.main.feed.dispatch;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class represents a {@link ThreadFactory}, which creates named daemon
+ * {@code Thread}s. Daemon {@code Thread}s do not prevent the JVM from exiting.
+ * 
+ * @author Tobias Schlecht
+ */
+public final class DaemonThreadFactory implements ThreadFactory
+{
+	private final String namePrefix;
+	private final AtomicInteger threadCount = new AtomicInteger(0);
+
+	/**
+	 * Constructs a {@link DaemonThreadFactory}.
+	 * 
+	 * @param namePrefix The prefix of the names of the created {@code Thread}s
+	 */
+	public DaemonThreadFactory(String namePrefix)
+	{
+		this.namePrefix = namePrefix;
+	}
+
+	@Override
+	public Thread newThread(Runnable runnable)
+	{
+		Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+
+		thread.setDaemon(true);
+
+		return thread;
+	}
+}
@@ -0,0 +1,16 @@
+package org.diretto.api.client.main.feed.dispatch;
+
+/**
+ * This interface represents a task, which is executed by a {@link Dispatcher}
+ * and which has to be informed if it will never be executed, because the
+ * {@code Dispatcher} has been shut down.
+ * 
+ * @author Tobias Schlecht
+ */
+interface DispatchTask extends Runnable
+{
+	/**
+	 * Called when the task has been dropped by the {@link Dispatcher}.
+	 */
+	void onDropped();
+}
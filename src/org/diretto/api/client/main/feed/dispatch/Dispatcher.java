@@ -0,0 +1,180 @@
+package org.diretto.api.client.main.feed.dispatch;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.configuration.XMLConfiguration;
+import org.diretto.api.client.main.feed.management.LatencyHistogram;
+import org.diretto.api.client.main.feed.management.LatencySnapshot;
+
+/**
+ * This class represents a {@code Dispatcher}, which executes the delivery of
+ * the {@code FeedService} events on a bounded pool of worker {@code Thread}s.
+ * <br/><br/>
+ * 
+ * The pool always grows up to the configured number of worker {@code Thread}s
+ * before tasks are queued, whereby idle worker {@code Thread}s are terminated
+ * after the keep-alive time. Hence up to {@code maximum-pool-size - 1}
+ * {@code Listener}s may block at the same time without delaying the others.
+ * <br/><br/>
+ * 
+ * The work queue is not bounded, since each {@link ListenerMailbox} is
+ * scheduled at most once at a time. Hence {@link #dispatch(Runnable)} never
+ * blocks and the number of queued tasks never exceeds the number of
+ * {@code ListenerMailbox}es. The bounds and the {@link OverflowPolicy} apply to
+ * the {@code ListenerMailbox}es.
+ * 
+ * @author Tobias Schlecht
+ */
+public final class Dispatcher
+{
+	private static final String THREAD_NAME_PREFIX = "FeedService-Dispatcher-";
+
+	private static final AtomicInteger dispatcherCount = new AtomicInteger(0);
+
+	private final String threadNamePrefix = THREAD_NAME_PREFIX + dispatcherCount.incrementAndGet() + "-";
+
+	private final ThreadPoolExecutor threadPoolExecutor;
+	private final ScheduledThreadPoolExecutor scheduledThreadPoolExecutor;
+
+	private final AtomicLong droppedTaskCount = new AtomicLong(0);
+	private final LatencyHistogram dispatchLatency = new LatencyHistogram();
+
+	/**
+	 * Constructs a {@link Dispatcher}.
+	 * 
+	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 */
+	public Dispatcher(XMLConfiguration xmlConfiguration)
+	{
+		int maximumPoolSize = Math.max(1, xmlConfiguration.getInt("dispatcher/maximum-pool-size"));
+		long keepAliveTime = xmlConfiguration.getLong("dispatcher/keep-alive-time");
+
+		threadPoolExecutor = new ThreadPoolExecutor(maximumPoolSize, maximumPoolSize, Math.max(1, keepAliveTime), TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory(threadNamePrefix + "Worker-"));
+		threadPoolExecutor.allowCoreThreadTimeOut(true);
+
+		scheduledThreadPoolExecutor = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory(threadNamePrefix + "Timer-"));
+	}
+
+	/**
+	 * Dispatches the given task, which will be executed by one of the worker
+	 * {@code Thread}s. This method never blocks. If the {@link Dispatcher} has
+	 * been shut down, the task is dropped.
+	 * 
+	 * @param task The task to dispatch
+	 */
+	public void dispatch(Runnable task)
+	{
+		try
+		{
+			threadPoolExecutor.execute(task);
+		}
+		catch(RejectedExecutionException e)
+		{
+			onDropped(task);
+
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Called when the given task has been dropped and will therefore never be
+	 * executed.
+	 * 
+	 * @param task The dropped task
+	 */
+	private void onDropped(Runnable task)
+	{
+		droppedTaskCount.incrementAndGet();
+
+		if(task instanceof DispatchTask)
+		{
+			((DispatchTask) task).onDropped();
+		}
+	}
+
+	/**
+	 * Schedules the given task, which will be executed by the timer
+	 * {@code Thread} of the {@link Dispatcher} after the given delay. Since
+	 * there is only one timer {@code Thread}, the task should not block.
+	 * 
+	 * @param task The task to schedule
+	 * @param delay The delay in milliseconds
+	 * @return The {@code ScheduledFuture} of the task
+	 */
+	public ScheduledFuture<?> schedule(Runnable task, long delay)
+	{
+		return scheduledThreadPoolExecutor.schedule(task, delay, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Returns the number of tasks which are currently waiting in the work
+	 * queue.
+	 * 
+	 * @return The number of queued tasks
+	 */
+	public int getQueueSize()
+	{
+		return threadPoolExecutor.getQueue().size();
+	}
+
+	/**
+	 * Returns the number of worker {@code Thread}s which are currently
+	 * executing tasks.
+	 * 
+	 * @return The number of active worker {@code Thread}s
+	 */
+	public int getActiveCount()
+	{
+		return threadPoolExecutor.getActiveCount();
+	}
+
+	/**
+	 * Returns the number of tasks which have been dropped so far.
+	 * 
+	 * @return The number of dropped tasks
+	 */
+	public long getDroppedTaskCount()
+	{
+		return droppedTaskCount.get();
+	}
+
+	/**
+	 * Records the latency between the posting of a notification and its
+	 * delivery to a {@code Listener}.
+	 * 
+	 * @param postNanoTime The time when the notification has been posted in
+	 *        nanoseconds, as returned by {@link System#nanoTime()}
+	 */
+	void recordDispatchLatency(long postNanoTime)
+	{
+		dispatchLatency.recordSince(postNanoTime);
+	}
+
+	/**
+	 * Returns the statistics of the latency between the posting of a
+	 * notification and its delivery to a {@code Listener}.
+	 * 
+	 * @return The {@code LatencySnapshot} of the dispatch latency
+	 */
+	public LatencySnapshot getDispatchLatency()
+	{
+		return dispatchLatency.getSnapshot();
+	}
+
+	/**
+	 * Shuts the {@link Dispatcher} down. Already queued tasks will still be
+	 * executed, but no new tasks will be accepted.
+	 */
+	public void shutdown()
+	{
+		scheduledThreadPoolExecutor.shutdown();
+		threadPoolExecutor.shutdown();
+	}
+}
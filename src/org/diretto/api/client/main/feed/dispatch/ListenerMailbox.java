@@ -0,0 +1,245 @@
+package org.diretto.api.client.main.feed.dispatch;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.diretto.api.client.main.feed.event.Listener;
+
+/**
+ * This class represents the {@code ListenerMailbox} of a single
+ * {@link Listener}. <br/><br/>
+ * 
+ * All {@link Notification}s for the {@code Listener} are posted to its bounded
+ * {@code ListenerMailbox}, which is drained by the shared {@link Dispatcher}.
+ * The {@code Notification}s are thereby delivered one after another in the
+ * order in which they have been posted. A {@code Listener} which blocks only
+ * fills its own {@code ListenerMailbox}. If the {@code ListenerMailbox} is
+ * full, the configured {@link OverflowPolicy} determines whether the oldest
+ * pending or the new {@code Notification} is dropped. Posting never blocks,
+ * because the posting {@code Thread} is shared by all {@code Listener}s.
+ * 
+ * @author Tobias Schlecht
+ * 
+ * @param <L> The type of the {@code Listener}
+ */
+public final class ListenerMailbox<L extends Listener>
+{
+	private final L listener;
+	private final Dispatcher dispatcher;
+	private final int throughput;
+	private final OverflowPolicy overflowPolicy;
+
+	private final BlockingQueue<Envelope<L>> queue;
+	private final AtomicBoolean scheduled = new AtomicBoolean(false);
+	private final AtomicLong droppedNotificationCount = new AtomicLong(0);
+
+	private volatile long inProgressPostTime = 0;
+
+	private final DispatchTask drainTask = new DispatchTask()
+	{
+		@Override
+		public void run()
+		{
+			drain();
+		}
+
+		@Override
+		public void onDropped()
+		{
+			droppedNotificationCount.addAndGet(queue.size());
+
+			queue.clear();
+
+			scheduled.set(false);
+		}
+	};
+
+	/**
+	 * Constructs a {@link ListenerMailbox}.
+	 * 
+	 * @param listener The corresponding {@code Listener}
+	 * @param dispatcher The {@code Dispatcher} which drains the
+	 *        {@code ListenerMailbox}
+	 * @param capacity The maximum number of pending {@code Notification}s
+	 * @param throughput The maximum number of {@code Notification}s which are
+	 *        delivered before the worker {@code Thread} is handed over to
+	 *        another {@code ListenerMailbox}
+	 * @param overflowPolicy The {@code OverflowPolicy} which applies if the
+	 *        {@code ListenerMailbox} is full
+	 */
+	public ListenerMailbox(L listener, Dispatcher dispatcher, int capacity, int throughput, OverflowPolicy overflowPolicy)
+	{
+		this.listener = listener;
+		this.dispatcher = dispatcher;
+		this.throughput = Math.max(1, throughput);
+		this.overflowPolicy = overflowPolicy;
+
+		queue = new LinkedBlockingQueue<Envelope<L>>(Math.max(1, capacity));
+	}
+
+	/**
+	 * Returns the corresponding {@link Listener}.
+	 * 
+	 * @return The {@code Listener}
+	 */
+	public L getListener()
+	{
+		return listener;
+	}
+
+	/**
+	 * Posts the given {@link Notification} to the {@link ListenerMailbox}. If
+	 * the {@code ListenerMailbox} is full, a {@code Notification} is dropped
+	 * according to the {@link OverflowPolicy}. This method never blocks.
+	 * 
+	 * @param notification The {@code Notification}
+	 */
+	public void post(Notification<L> notification)
+	{
+		Envelope<L> envelope = new Envelope<L>(notification, System.currentTimeMillis(), System.nanoTime());
+
+		if(overflowPolicy == OverflowPolicy.DROP_NEWEST)
+		{
+			if(!queue.offer(envelope))
+			{
+				droppedNotificationCount.incrementAndGet();
+
+				return;
+			}
+		}
+		else
+		{
+			while(!queue.offer(envelope))
+			{
+				if(queue.poll() != null)
+				{
+					droppedNotificationCount.incrementAndGet();
+				}
+			}
+		}
+
+		schedule();
+	}
+
+	/**
+	 * Hands the {@link ListenerMailbox} over to the {@link Dispatcher}, unless
+	 * it is already scheduled.
+	 */
+	private void schedule()
+	{
+		if(scheduled.compareAndSet(false, true))
+		{
+			dispatcher.dispatch(drainTask);
+		}
+	}
+
+	/**
+	 * Delivers the pending {@link Notification}s to the {@link Listener}. At
+	 * most {@code throughput} {@code Notification}s are delivered at once, so
+	 * that the other {@link ListenerMailbox}es are not starved.
+	 */
+	private void drain()
+	{
+		try
+		{
+			Envelope<L> envelope = null;
+
+			for(int i = 0; i < throughput && (envelope = queue.poll()) != null; i++)
+			{
+				inProgressPostTime = envelope.postTime;
+
+				dispatcher.recordDispatchLatency(envelope.postNanoTime);
+
+				try
+				{
+					envelope.notification.deliverTo(listener);
+				}
+				catch(RuntimeException e)
+				{
+					e.printStackTrace();
+				}
+			}
+		}
+		finally
+		{
+			inProgressPostTime = 0;
+
+			scheduled.set(false);
+		}
+
+		if(!queue.isEmpty())
+		{
+			schedule();
+		}
+	}
+
+	/**
+	 * Returns the number of pending {@link Notification}s.
+	 * 
+	 * @return The depth of the {@code ListenerMailbox}
+	 */
+	public int getDepth()
+	{
+		return queue.size();
+	}
+
+	/**
+	 * Returns the lag of the {@link Listener} in milliseconds. This is the time
+	 * the oldest {@link Notification} which has not yet been completely
+	 * delivered has spent in the {@link ListenerMailbox}.
+	 * 
+	 * @return The lag in milliseconds
+	 */
+	public long getLag()
+	{
+		long oldestPostTime = inProgressPostTime;
+
+		if(oldestPostTime == 0)
+		{
+			Envelope<L> envelope = queue.peek();
+
+			if(envelope == null)
+			{
+				return 0;
+			}
+
+			oldestPostTime = envelope.postTime;
+		}
+
+		return Math.max(0, System.currentTimeMillis() - oldestPostTime);
+	}
+
+	/**
+	 * Returns the number of {@link Notification}s which have been dropped so
+	 * far, because the {@link ListenerMailbox} was full or the
+	 * {@link Dispatcher} has been shut down.
+	 * 
+	 * @return The number of dropped {@code Notification}s
+	 */
+	public long getDroppedNotificationCount()
+	{
+		return droppedNotificationCount.get();
+	}
+
+	/**
+	 * This class wraps a {@link Notification} together with the time when it
+	 * has been posted (in milliseconds and in nanoseconds).
+	 * 
+	 * @param <L> The type of the {@code Listener}
+	 */
+	private static final class Envelope<L extends Listener>
+	{
+		private final Notification<L> notification;
+		private final long postTime;
+		private final long postNanoTime;
+
+		private Envelope(Notification<L> notification, long postTime, long postNanoTime)
+		{
+			this.notification = notification;
+			this.postTime = postTime;
+			this.postNanoTime = postNanoTime;
+		}
+	}
+}
@@ -0,0 +1,207 @@
+package org.diretto.api.client.main.feed.dispatch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.configuration.XMLConfiguration;
+import org.diretto.api.client.main.feed.event.Listener;
+
+/**
+ * This class represents a {@code ListenerRegistry}, which manages the
+ * registered {@link Listener}s of one type together with their
+ * {@link ListenerMailbox}es. <br/><br/>
+ * 
+ * The {@code Listener}s are identified by their identity, so that adding and
+ * removing a {@code Listener} takes constant time. {@link Notification}s are
+ * posted to an immutable snapshot of the registered {@code Listener}s, which is
+ * only rebuilt after the registry has been changed. Hence posting does not
+ * contend with adding or removing {@code Listener}s.
+ * 
+ * @author Tobias Schlecht
+ * 
+ * @param <L> The type of the {@code Listener}s
+ */
+public final class ListenerRegistry<L extends Listener>
+{
+	private final Dispatcher dispatcher;
+	private final int mailboxCapacity;
+	private final int mailboxThroughput;
+	private final OverflowPolicy overflowPolicy;
+
+	private final Map<IdentityKey, ListenerMailbox<L>> mailboxes = new ConcurrentHashMap<IdentityKey, ListenerMailbox<L>>();
+
+	private volatile List<ListenerMailbox<L>> snapshot = Collections.emptyList();
+
+	/**
+	 * Constructs a {@link ListenerRegistry}.
+	 * 
+	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 * @param dispatcher The {@code Dispatcher} which drains the
+	 *        {@code ListenerMailbox}es
+	 */
+	public ListenerRegistry(XMLConfiguration xmlConfiguration, Dispatcher dispatcher)
+	{
+		this.dispatcher = dispatcher;
+
+		mailboxCapacity = xmlConfiguration.getInt("dispatcher/mailbox-capacity");
+		mailboxThroughput = xmlConfiguration.getInt("dispatcher/mailbox-throughput");
+		overflowPolicy = OverflowPolicy.fromConfigValue(xmlConfiguration.getString("dispatcher/overflow-policy"));
+	}
+
+	/**
+	 * Adds the given {@link Listener}, unless it has already been added.
+	 * 
+	 * @param listener The {@code Listener}
+	 * @return {@code true} if the {@code Listener} has been added
+	 */
+	public synchronized boolean add(L listener)
+	{
+		IdentityKey key = new IdentityKey(listener);
+
+		if(mailboxes.containsKey(key))
+		{
+			return false;
+		}
+
+		mailboxes.put(key, new ListenerMailbox<L>(listener, dispatcher, mailboxCapacity, mailboxThroughput, overflowPolicy));
+
+		snapshot = null;
+
+		return true;
+	}
+
+	/**
+	 * Removes the given {@link Listener}. Already posted {@link Notification}s
+	 * will still be delivered.
+	 * 
+	 * @param listener The {@code Listener}
+	 * @return {@code true} if the {@code Listener} has been removed
+	 */
+	public synchronized boolean remove(Listener listener)
+	{
+		if(mailboxes.remove(new IdentityKey(listener)) == null)
+		{
+			return false;
+		}
+
+		snapshot = null;
+
+		return true;
+	}
+
+	/**
+	 * Returns the {@link ListenerMailbox} of the given {@link Listener}.
+	 * 
+	 * @param listener The {@code Listener}
+	 * @return The {@code ListenerMailbox} or {@code null} if the
+	 *         {@code Listener} has not been added
+	 */
+	public ListenerMailbox<L> getMailbox(Listener listener)
+	{
+		return mailboxes.get(new IdentityKey(listener));
+	}
+
+	/**
+	 * Returns whether there is no registered {@link Listener}.
+	 * 
+	 * @return {@code true} if there is no registered {@code Listener}
+	 */
+	public boolean isEmpty()
+	{
+		return mailboxes.isEmpty();
+	}
+
+	/**
+	 * Posts the given {@link Notification} to the {@link ListenerMailbox}es of
+	 * all registered {@link Listener}s.
+	 * 
+	 * @param notification The {@code Notification}
+	 */
+	public void post(Notification<L> notification)
+	{
+		post(getMailboxes(), Collections.singletonList(notification));
+	}
+
+	/**
+	 * Posts the given {@link Notification}s in the given order to the given
+	 * {@link ListenerMailbox}es, which have been taken from
+	 * {@link #getMailboxes()} before.
+	 * 
+	 * @param <L> The type of the {@code Listener}s
+	 * @param mailboxes The {@code ListenerMailbox}es
+	 * @param notifications The {@code Notification}s
+	 */
+	public static <L extends Listener> void post(List<ListenerMailbox<L>> mailboxes, List<Notification<L>> notifications)
+	{
+		for(int i = 0; i < mailboxes.size(); i++)
+		{
+			ListenerMailbox<L> mailbox = mailboxes.get(i);
+
+			for(int j = 0; j < notifications.size(); j++)
+			{
+				mailbox.post(notifications.get(j));
+			}
+		}
+	}
+
+	/**
+	 * Returns the current snapshot of the {@link ListenerMailbox}es. If the
+	 * registry has been changed since the last snapshot has been taken, a new
+	 * snapshot is built.
+	 * 
+	 * @return An immutable {@code List} with the {@code ListenerMailbox}es
+	 */
+	public List<ListenerMailbox<L>> getMailboxes()
+	{
+		List<ListenerMailbox<L>> currentSnapshot = snapshot;
+
+		if(currentSnapshot != null)
+		{
+			return currentSnapshot;
+		}
+
+		synchronized(this)
+		{
+			if(snapshot == null)
+			{
+				snapshot = Collections.unmodifiableList(new ArrayList<ListenerMailbox<L>>(mailboxes.values()));
+			}
+
+			return snapshot;
+		}
+	}
+
+	/**
+	 * This class represents an {@code IdentityKey}, which wraps a
+	 * {@link Listener} in such a way that it is compared by its identity.
+	 */
+	private static final class IdentityKey
+	{
+		private final Listener listener;
+
+		/**
+		 * Constructs an {@link IdentityKey}.
+		 * 
+		 * @param listener The {@code Listener}
+		 */
+		IdentityKey(Listener listener)
+		{
+			this.listener = listener;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return System.identityHashCode(listener);
+		}
+
+		@Override
+		public boolean equals(Object object)
+		{
+			return object instanceof IdentityKey && ((IdentityKey) object).listener == listener;
+		}
+	}
+}
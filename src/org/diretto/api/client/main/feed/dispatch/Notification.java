@@ -0,0 +1,22 @@
+package org.diretto.api.client.main.feed.dispatch;
+
+import org.diretto.api.client.main.feed.event.Listener;
+
+/**
+ * This interface represents a {@code Notification}, which can be posted to the
+ * {@link ListenerMailbox} of a {@link Listener} and which will be delivered to
+ * the {@code Listener} by invoking the corresponding callback method.
+ * 
+ * @author Tobias Schlecht
+ * 
+ * @param <L> The type of the {@code Listener}
+ */
+public interface Notification<L extends Listener>
+{
+	/**
+	 * Delivers the {@link Notification} to the given {@link Listener}.
+	 * 
+	 * @param listener The {@code Listener}
+	 */
+	void deliverTo(L listener);
+}
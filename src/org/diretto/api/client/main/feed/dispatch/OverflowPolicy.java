@@ -0,0 +1,72 @@
+package org.diretto.api.client.main.feed.dispatch;
+
+/**
+ * This enum represents the policies which determine how a
+ * {@link ListenerMailbox} behaves in the case that it is full. With every
+ * policy the posting {@code Thread} never waits, because it is shared by all
+ * {@code Listener}s of the {@code Feed}: A {@code Listener} which cannot keep
+ * up only loses its own {@code Notification}s and never slows down the other
+ * {@code Listener}s.
+ * 
+ * @author Tobias Schlecht
+ */
+public enum OverflowPolicy
+{
+	/**
+	 * The oldest pending {@code Notification} of the {@code ListenerMailbox} is
+	 * discarded in favor of the new one, so that the {@code Listener} catches
+	 * up with the latest events.
+	 */
+	DROP_OLDEST("drop-oldest"),
+
+	/**
+	 * The new {@code Notification} is discarded, so that the {@code Listener}
+	 * receives the pending events without a gap in between.
+	 */
+	DROP_NEWEST("drop-newest");
+
+	private final String configValue;
+
+	/**
+	 * Constructs an {@link OverflowPolicy}.
+	 * 
+	 * @param configValue The value which represents the {@code OverflowPolicy}
+	 *        within the XML configuration file
+	 */
+	private OverflowPolicy(String configValue)
+	{
+		this.configValue = configValue;
+	}
+
+	/**
+	 * Returns the value which represents the {@link OverflowPolicy} within the
+	 * XML configuration file.
+	 * 
+	 * @return The configuration value
+	 */
+	public String getConfigValue()
+	{
+		return configValue;
+	}
+
+	/**
+	 * Returns the {@link OverflowPolicy} corresponding to the given
+	 * configuration value. If there is no matching {@code OverflowPolicy},
+	 * {@link #DROP_OLDEST} will be returned.
+	 * 
+	 * @param configValue The configuration value
+	 * @return The corresponding {@code OverflowPolicy}
+	 */
+	public static OverflowPolicy fromConfigValue(String configValue)
+	{
+		for(OverflowPolicy overflowPolicy : values())
+		{
+			if(overflowPolicy.configValue.equalsIgnoreCase(configValue))
+			{
+				return overflowPolicy;
+			}
+		}
+
+		return DROP_OLDEST;
+	}
+}
@@ -0,0 +1,29 @@
+package org.diretto.api.client.main.feed.event;
+
+import java.util.List;
+
+import org.diretto.api.client.main.core.entities.Attachment;
+import org.diretto.api.client.main.core.entities.AttachmentID;
+import org.diretto.api.client.main.feed.FeedService;
+
+/**
+ * This interface represents a {@link Listener} for {@link FeedService} events
+ * in respect of {@link Attachment}s, which receives the new {@code Attachment}s
+ * in batches instead of one by one. <br/><br/>
+ * 
+ * A batch contains all {@code Attachment}s of a single {@code Feed} update or
+ * of the configured batch window.
+ * 
+ * @author Tobias Schlecht
+ */
+public interface AttachmentBatchListener extends Listener
+{
+	/**
+	 * Called when new {@link Attachment}s have been added.
+	 * 
+	 * @param attachmentIDs A {@code List} with the {@code AttachmentID}s of the
+	 *        new {@code Attachment}s
+	 * @see FeedService
+	 */
+	void onAttachmentsAdded(List<AttachmentID> attachmentIDs);
+}
@@ -13,16 +13,11 @@ import org.diretto.api.client.main.feed.FeedService;
 public interface AttachmentListener extends Listener
 {
 	/**
-	 * Called when a new {@link Attachment} has been added. <br/><br/>
-	 * 
-	 * <i>Annotation:</i> Usually the {@link AttachmentID}s will be delivered in
-	 * a chronological order. This means that {@code AttachmentID}s of earlier
-	 * published {@code Attachment}s will appear before {@code AttachmentID}s of
-	 * later published {@code Attachment}s. But due to concurrency there is
-	 * <u>no guarantee</u> that this will always happen in the described manner.
+	 * Called when a new {@link Attachment} has been added.
 	 * 
 	 * @param attachmentID The {@code AttachmentID} of the new
 	 *        {@code Attachment}
+	 * @see FeedService
 	 */
 	void onAttachmentAdded(AttachmentID attachmentID);
 }
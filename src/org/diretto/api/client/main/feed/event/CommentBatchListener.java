@@ -0,0 +1,29 @@
+package org.diretto.api.client.main.feed.event;
+
+import java.util.List;
+
+import org.diretto.api.client.main.core.entities.Comment;
+import org.diretto.api.client.main.core.entities.CommentID;
+import org.diretto.api.client.main.feed.FeedService;
+
+/**
+ * This interface represents a {@link Listener} for {@link FeedService} events
+ * in respect of {@link Comment}s, which receives the new {@code Comment}s in
+ * batches instead of one by one. <br/><br/>
+ * 
+ * A batch contains all {@code Comment}s of a single {@code Feed} update or of
+ * the configured batch window.
+ * 
+ * @author Tobias Schlecht
+ */
+public interface CommentBatchListener extends Listener
+{
+	/**
+	 * Called when new {@link Comment}s have been added.
+	 * 
+	 * @param commentIDs A {@code List} with the {@code CommentID}s of the new
+	 *        {@code Comment}s
+	 * @see FeedService
+	 */
+	void onCommentsAdded(List<CommentID> commentIDs);
+}
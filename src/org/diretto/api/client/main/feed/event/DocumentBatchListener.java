@@ -0,0 +1,29 @@
+package org.diretto.api.client.main.feed.event;
+
+import java.util.List;
+
+import org.diretto.api.client.main.core.entities.Document;
+import org.diretto.api.client.main.core.entities.DocumentID;
+import org.diretto.api.client.main.feed.FeedService;
+
+/**
+ * This interface represents a {@link Listener} for {@link FeedService} events
+ * in respect of {@link Document}s, which receives the new {@code Document}s in
+ * batches instead of one by one. <br/><br/>
+ * 
+ * A batch contains all {@code Document}s of a single {@code Feed} update or of
+ * the configured batch window.
+ * 
+ * @author Tobias Schlecht
+ */
+public interface DocumentBatchListener extends Listener
+{
+	/**
+	 * Called when new {@link Document}s have been added.
+	 * 
+	 * @param documentIDs A {@code List} with the {@code DocumentID}s of the new
+	 *        {@code Document}s
+	 * @see FeedService
+	 */
+	void onDocumentsAdded(List<DocumentID> documentIDs);
+}
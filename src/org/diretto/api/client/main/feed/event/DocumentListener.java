@@ -13,15 +13,10 @@ import org.diretto.api.client.main.feed.FeedService;
 public interface DocumentListener extends Listener
 {
 	/**
-	 * Called when a new {@link Document} has been added. <br/><br/>
-	 * 
-	 * <i>Annotation:</i> Usually the {@link DocumentID}s will be delivered in a
-	 * chronological order. This means that {@code DocumentID}s of earlier
-	 * published {@code Document}s will appear before {@code DocumentID}s of
-	 * later published {@code Document}s. But due to concurrency there is <u>no
-	 * guarantee</u> that this will always happen in the described manner.
+	 * Called when a new {@link Document} has been added.
 	 * 
 	 * @param documentID The {@code DocumentID} of the new {@code Document}
+	 * @see FeedService
 	 */
 	void onDocumentAdded(DocumentID documentID);
 }
@@ -0,0 +1,208 @@
+package org.diretto.api.client.main.feed.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+
+import org.apache.commons.configuration.XMLConfiguration;
+import org.eclipse.jetty.client.ContentExchange;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.HttpExchange;
+import org.eclipse.jetty.client.RedirectListener;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import com.sun.syndication.feed.atom.Feed;
+
+/**
+ * This class represents a {@code FeedHttpClient}, which is the dedicated HTTP
+ * client of the {@code FeedService} for all outbound requests of {@link Feed}
+ * documents (e.g. fallback crawls, polls and hub discoveries). <br/><br/>
+ * 
+ * The client is based on the NIO {@link HttpClient} of {@code Jetty} and keeps
+ * the connections alive in a pool, whereby the number of connections per host
+ * is limited. Requests which exceed the limit are queued until a connection
+ * becomes available. The responses are requested with
+ * {@code Accept-Encoding: gzip} and are decompressed transparently.
+ * 
+ * @author Tobias Schlecht
+ */
+public final class FeedHttpClient
+{
+	private static final String SETTINGS = "http-client";
+	private static final String THREAD_POOL_NAME = "FeedService-HttpClient";
+	private static final String ACCEPT = "application/atom+xml, application/xml;q=0.9, */*;q=0.1";
+	private static final String USER_AGENT = "diretto Java Client FeedService";
+
+	private final HttpClient httpClient;
+	private final boolean gzipActivated;
+
+	/**
+	 * Constructs a {@link FeedHttpClient} and starts it.
+	 * 
+	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 */
+	public FeedHttpClient(XMLConfiguration xmlConfiguration)
+	{
+		gzipActivated = xmlConfiguration.getBoolean(SETTINGS + "/gzip");
+
+		QueuedThreadPool threadPool = new QueuedThreadPool();
+
+		threadPool.setName(THREAD_POOL_NAME);
+		threadPool.setDaemon(true);
+		threadPool.setMaxThreads(Math.max(2, xmlConfiguration.getInt(SETTINGS + "/max-threads")));
+
+		httpClient = new HttpClient();
+
+		httpClient.setConnectorType(HttpClient.CONNECTOR_SELECT_CHANNEL);
+		httpClient.setThreadPool(threadPool);
+		httpClient.setMaxConnectionsPerAddress(Math.max(1, xmlConfiguration.getInt(SETTINGS + "/max-connections-per-host")));
+		httpClient.setConnectTimeout(xmlConfiguration.getInt(SETTINGS + "/connect-timeout"));
+		httpClient.setTimeout(xmlConfiguration.getLong(SETTINGS + "/request-timeout"));
+		httpClient.setIdleTimeout(xmlConfiguration.getLong(SETTINGS + "/idle-timeout"));
+		httpClient.registerListener(RedirectListener.class.getName());
+
+		try
+		{
+			httpClient.start();
+		}
+		catch(Exception e)
+		{
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Sends an HTTP GET request for the given {@code URL} and waits for the
+	 * complete response.
+	 * 
+	 * @param url The {@code URL} ({@code String} representation)
+	 * @return The {@code FeedHttpResponse}
+	 * @throws IOException If the request has failed or has timed out
+	 */
+	public FeedHttpResponse get(String url) throws IOException
+	{
+		return get(url, null);
+	}
+
+	/**
+	 * Sends an HTTP GET request with the given additional request headers (e.g.
+	 * the headers of a conditional request) for the given {@code URL} and waits
+	 * for the complete response.
+	 * 
+	 * @param url The {@code URL} ({@code String} representation)
+	 * @param requestHeaders A {@code Map} with the additional request headers
+	 *        or {@code null}
+	 * @return The {@code FeedHttpResponse}
+	 * @throws IOException If the request has failed or has timed out
+	 */
+	public FeedHttpResponse get(String url, Map<String, String> requestHeaders) throws IOException
+	{
+		FeedExchange exchange = new FeedExchange();
+
+		exchange.setMethod("GET");
+		exchange.setURL(url);
+		exchange.setRequestHeader("Accept", ACCEPT);
+		exchange.setRequestHeader("User-Agent", USER_AGENT);
+
+		if(gzipActivated)
+		{
+			exchange.setRequestHeader("Accept-Encoding", "gzip");
+		}
+
+		if(requestHeaders != null)
+		{
+			for(Map.Entry<String, String> requestHeader : requestHeaders.entrySet())
+			{
+				exchange.setRequestHeader(requestHeader.getKey(), requestHeader.getValue());
+			}
+		}
+
+		httpClient.send(exchange);
+
+		int status;
+
+		try
+		{
+			status = exchange.waitForDone();
+		}
+		catch(InterruptedException e)
+		{
+			exchange.cancel();
+
+			Thread.currentThread().interrupt();
+
+			throw new InterruptedIOException("The request has been interrupted: " + url);
+		}
+
+		if(status == HttpExchange.STATUS_EXPIRED)
+		{
+			throw new SocketTimeoutException("The request has timed out: " + url);
+		}
+
+		if(status != HttpExchange.STATUS_COMPLETED)
+		{
+			throw new IOException("The request has failed: " + url, exchange.getFailure());
+		}
+
+		return new FeedHttpResponse(exchange.getResponseStatus(), exchange.getResponseFields(), exchange.getResponseContentBytes());
+	}
+
+	/**
+	 * Stops the {@link FeedHttpClient} and closes all pooled connections.
+	 */
+	public void shutdown()
+	{
+		try
+		{
+			httpClient.stop();
+		}
+		catch(Exception e)
+		{
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * This class represents a {@code FeedExchange}, which buffers the response
+	 * and keeps the cause of a failed request.
+	 */
+	private static final class FeedExchange extends ContentExchange
+	{
+		private volatile Throwable failure = null;
+
+		/**
+		 * Constructs a {@link FeedExchange}.
+		 */
+		FeedExchange()
+		{
+			super(true);
+		}
+
+		@Override
+		protected void onConnectionFailed(Throwable throwable)
+		{
+			failure = throwable;
+
+			super.onConnectionFailed(throwable);
+		}
+
+		@Override
+		protected void onException(Throwable throwable)
+		{
+			failure = throwable;
+
+			super.onException(throwable);
+		}
+
+		/**
+		 * Returns the cause of a failed request.
+		 * 
+		 * @return The cause or {@code null} if it is unknown
+		 */
+		Throwable getFailure()
+		{
+			return failure;
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package org.diretto.api.client.main.feed.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.eclipse.jetty.http.HttpFields;
+
+/**
+ * This class represents a {@code FeedHttpResponse}, which contains the status
+ * code, the header fields and the buffered content of a response which has been
+ * received by the {@link FeedHttpClient}.
+ * 
+ * @author Tobias Schlecht
+ */
+public final class FeedHttpResponse
+{
+	private final int statusCode;
+	private final HttpFields headerFields;
+	private final byte[] content;
+
+	/**
+	 * Constructs a {@link FeedHttpResponse}.
+	 * 
+	 * @param statusCode The HTTP status code
+	 * @param headerFields The header fields
+	 * @param content The (possibly compressed) content or {@code null} if there
+	 *        is no content
+	 */
+	FeedHttpResponse(int statusCode, HttpFields headerFields, byte[] content)
+	{
+		this.statusCode = statusCode;
+		this.headerFields = headerFields;
+		this.content = content != null ? content : new byte[0];
+	}
+
+	/**
+	 * Returns the HTTP status code of the {@link FeedHttpResponse}.
+	 * 
+	 * @return The HTTP status code
+	 */
+	public int getStatusCode()
+	{
+		return statusCode;
+	}
+
+	/**
+	 * Returns the value of the header field with the given name.
+	 * 
+	 * @param name The name of the header field
+	 * @return The value or {@code null} if the header field does not exist
+	 */
+	public String getHeader(String name)
+	{
+		if(headerFields == null)
+		{
+			return null;
+		}
+
+		return headerFields.getStringField(name);
+	}
+
+	/**
+	 * Returns an {@link InputStream} which provides the content of the
+	 * {@link FeedHttpResponse}. A {@code gzip} compressed content is
+	 * decompressed.
+	 * 
+	 * @return The {@code InputStream}
+	 * @throws IOException If the compressed content is corrupt
+	 */
+	public InputStream getInputStream() throws IOException
+	{
+		InputStream inputStream = new ByteArrayInputStream(content);
+
+		if("gzip".equalsIgnoreCase(getHeader("Content-Encoding")))
+		{
+			return new GZIPInputStream(inputStream);
+		}
+
+		return inputStream;
+	}
+}
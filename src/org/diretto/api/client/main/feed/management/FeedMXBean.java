@@ -0,0 +1,91 @@
+package org.diretto.api.client.main.feed.management;
+
+/**
+ * The interface {@code FeedMXBean} is the management interface of a single
+ * {@code Feed} of a {@code FeedService} instance. It exposes the statistics of
+ * the stages which the {@code Feed} updates pass through: The deduplication,
+ * the reordering, the hub failure fallback crawling and the handling.
+ * 
+ * @author Tobias Schlecht
+ */
+public interface FeedMXBean
+{
+	/**
+	 * Returns the number of received {@code Feed} updates.
+	 * 
+	 * @return The number of {@code Feed} updates
+	 */
+	long getUpdateCount();
+
+	/**
+	 * Returns the number of received {@code Feed} entries.
+	 * 
+	 * @return The number of {@code Feed} entries
+	 */
+	long getEntryCount();
+
+	/**
+	 * Returns the number of {@code Feed} entries which have been dropped as
+	 * duplicates.
+	 * 
+	 * @return The number of duplicate {@code Feed} entries
+	 */
+	long getDuplicateEntryCount();
+
+	/**
+	 * Returns the number of distinct {@code Feed} entries which have been
+	 * handled.
+	 * 
+	 * @return The number of distinct {@code Feed} entries
+	 */
+	long getDistinctEntryCount();
+
+	/**
+	 * Returns the number of {@code Feed} entries which are currently held by
+	 * the reorder buffer.
+	 * 
+	 * @return The number of held {@code Feed} entries
+	 */
+	int getHeldEntryCount();
+
+	/**
+	 * Returns the update time of the watermark of the {@code Feed} in
+	 * milliseconds since January 1, 1970, 00:00:00 GMT.
+	 * 
+	 * @return The update time of the watermark or {@code 0} if there is no
+	 *         watermark
+	 */
+	long getWatermark();
+
+	/**
+	 * Returns the number of hub failure fallback crawls.
+	 * 
+	 * @return The number of crawls
+	 */
+	long getCrawlCount();
+
+	/**
+	 * Returns the number of {@code Feed} pages with new entries which have been
+	 * handled by the hub failure fallback crawls.
+	 * 
+	 * @return The number of crawled {@code Feed} pages
+	 */
+	long getCrawledPageCount();
+
+	/**
+	 * Returns the statistics of the duration of the hub failure fallback
+	 * crawls.
+	 * 
+	 * @return The crawl time
+	 */
+	LatencySnapshot getCrawlTime();
+
+	/**
+	 * Returns the statistics of the time which is needed to handle a list of
+	 * {@code Feed} entries, including the preloading of parent
+	 * {@code Document}s.
+	 * 
+	 * @return The handle time
+	 */
+	LatencySnapshot getHandleTime();
+}
@@ -0,0 +1,71 @@
+package org.diretto.api.client.main.feed.management;
+
+/**
+ * The interface {@code FeedServiceMXBean} is the management interface of a
+ * {@code FeedService} instance. It exposes the state of the startup, the
+ * dispatching of the notifications to the {@code Listener}s and the preloading
+ * of new {@code Document}s.
+ * 
+ * @author Tobias Schlecht
+ */
+public interface FeedServiceMXBean
+{
+	/**
+	 * Returns the current startup state of the {@code FeedService}.
+	 * 
+	 * @return The startup state
+	 */
+	String getStartupState();
+
+	/**
+	 * Returns the number of tasks which are waiting to be dispatched.
+	 * 
+	 * @return The number of waiting tasks
+	 */
+	int getDispatchQueueSize();
+
+	/**
+	 * Returns the number of {@code Thread}s which are currently dispatching
+	 * tasks.
+	 * 
+	 * @return The number of active {@code Thread}s
+	 */
+	int getDispatchActiveCount();
+
+	/**
+	 * Returns the number of tasks which have been dropped by the dispatcher.
+	 * 
+	 * @return The number of dropped tasks
+	 */
+	long getDroppedDispatchTaskCount();
+
+	/**
+	 * Returns the statistics of the time between the posting of a notification
+	 * and its delivery to a {@code Listener}.
+	 * 
+	 * @return The dispatch latency
+	 */
+	LatencySnapshot getDispatchLatency();
+
+	/**
+	 * Returns the number of {@code Document}s which have not been preloaded,
+	 * because they were currently loaded or had been loaded recently.
+	 * 
+	 * @return The number of preload hits
+	 */
+	long getPreloadHitCount();
+
+	/**
+	 * Returns the number of {@code Document}s which have been preloaded.
+	 * 
+	 * @return The number of preload misses
+	 */
+	long getPreloadMissCount();
+
+	/**
+	 * Returns the average time of a preload batch in milliseconds.
+	 * 
+	 * @return The average preload time
+	 */
+	long getAveragePreloadTime();
+}
@@ -0,0 +1,146 @@
+package org.diretto.api.client.main.feed.management;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class represents a {@code LatencyHistogram}, which records latencies
+ * without locking and without allocating. <br/><br/>
+ * 
+ * The latencies are counted in buckets with power of two bounds in nanoseconds.
+ * Therefore a percentile is reported as the upper bound of the corresponding
+ * bucket, which overestimates the actual latency by less than a factor of two.
+ * 
+ * @author Tobias Schlecht
+ */
+public final class LatencyHistogram
+{
+	private static final int BUCKET_COUNT = 64;
+	private static final double NANOS_PER_MILLI = 1000000.0;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong count = new AtomicLong(0);
+	private final AtomicLong totalTime = new AtomicLong(0);
+	private final AtomicLong maxTime = new AtomicLong(0);
+
+	/**
+	 * Records the given latency.
+	 * 
+	 * @param nanos The latency in nanoseconds
+	 */
+	public void record(long nanos)
+	{
+		if(nanos < 0)
+		{
+			nanos = 0;
+		}
+
+		buckets.incrementAndGet(Math.min(BUCKET_COUNT - 1, BUCKET_COUNT - Long.numberOfLeadingZeros(nanos)));
+		count.incrementAndGet();
+		totalTime.addAndGet(nanos);
+
+		long currentMaxTime;
+
+		while(nanos > (currentMaxTime = maxTime.get()))
+		{
+			if(maxTime.compareAndSet(currentMaxTime, nanos))
+			{
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Records the latency between the given start time and now.
+	 * 
+	 * @param startTime The start time in nanoseconds, as returned by
+	 *        {@link System#nanoTime()}
+	 */
+	public void recordSince(long startTime)
+	{
+		record(System.nanoTime() - startTime);
+	}
+
+	/**
+	 * Returns the number of recorded latencies.
+	 * 
+	 * @return The number of recorded latencies
+	 */
+	public long getCount()
+	{
+		return count.get();
+	}
+
+	/**
+	 * Returns the given percentile of the recorded latencies.
+	 * 
+	 * @param percentile The percentile between {@code 0} and {@code 100}
+	 * @return The percentile in milliseconds or {@code 0} if no latency has
+	 *         been recorded
+	 */
+	public double getPercentile(double percentile)
+	{
+		long[] counts = new long[BUCKET_COUNT];
+		long total = 0;
+
+		for(int i = 0; i < BUCKET_COUNT; i++)
+		{
+			counts[i] = buckets.get(i);
+			total += counts[i];
+		}
+
+		if(total == 0)
+		{
+			return 0;
+		}
+
+		long rank = (long) Math.ceil(total * Math.max(0, Math.min(100, percentile)) / 100.0);
+		long cumulated = 0;
+
+		for(int i = 0; i < BUCKET_COUNT; i++)
+		{
+			cumulated += counts[i];
+
+			if(cumulated >= rank && counts[i] > 0)
+			{
+				return Math.min(getUpperBound(i), maxTime.get()) / NANOS_PER_MILLI;
+			}
+		}
+
+		return maxTime.get() / NANOS_PER_MILLI;
+	}
+
+	/**
+	 * Returns the upper bound of the bucket with the given index.
+	 * 
+	 * @param index The index of the bucket
+	 * @return The upper bound in nanoseconds
+	 */
+	private static long getUpperBound(int index)
+	{
+		if(index >= BUCKET_COUNT - 1)
+		{
+			return Long.MAX_VALUE;
+		}
+
+		return (1L << index) - 1;
+	}
+
+	/**
+	 * Returns a {@link LatencySnapshot} of the recorded latencies.
+	 * 
+	 * @return The {@code LatencySnapshot}
+	 */
+	public LatencySnapshot getSnapshot()
+	{
+		long currentCount = count.get();
+		double mean = 0;
+
+		if(currentCount > 0)
+		{
+			mean = totalTime.get() / NANOS_PER_MILLI / currentCount;
+		}
+
+		return new LatencySnapshot(currentCount, mean, getPercentile(50), getPercentile(95), getPercentile(99), maxTime.get() / NANOS_PER_MILLI);
+	}
+}
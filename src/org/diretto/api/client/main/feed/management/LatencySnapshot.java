@@ -0,0 +1,104 @@
+package org.diretto.api.client.main.feed.management;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * This class represents a {@code LatencySnapshot}, which contains the
+ * statistics of a {@link LatencyHistogram} at a certain point in time. All
+ * latencies are specified in milliseconds. <br/><br/>
+ * 
+ * <i>Annotation:</i> Within an {@code MXBean} a {@code LatencySnapshot} is
+ * mapped to a {@code CompositeData} object.
+ * 
+ * @author Tobias Schlecht
+ */
+public final class LatencySnapshot
+{
+	private final long count;
+	private final double mean;
+	private final double percentile50;
+	private final double percentile95;
+	private final double percentile99;
+	private final double max;
+
+	/**
+	 * Constructs a {@link LatencySnapshot}.
+	 * 
+	 * @param count The number of recorded latencies
+	 * @param mean The mean latency
+	 * @param percentile50 The 50th percentile
+	 * @param percentile95 The 95th percentile
+	 * @param percentile99 The 99th percentile
+	 * @param max The maximum latency
+	 */
+	@ConstructorProperties({"count", "mean", "percentile50", "percentile95", "percentile99", "max"})
+	public LatencySnapshot(long count, double mean, double percentile50, double percentile95, double percentile99, double max)
+	{
+		this.count = count;
+		this.mean = mean;
+		this.percentile50 = percentile50;
+		this.percentile95 = percentile95;
+		this.percentile99 = percentile99;
+		this.max = max;
+	}
+
+	/**
+	 * Returns the number of recorded latencies.
+	 * 
+	 * @return The number of recorded latencies
+	 */
+	public long getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * Returns the mean latency.
+	 * 
+	 * @return The mean latency
+	 */
+	public double getMean()
+	{
+		return mean;
+	}
+
+	/**
+	 * Returns the 50th percentile of the latencies.
+	 * 
+	 * @return The 50th percentile
+	 */
+	public double getPercentile50()
+	{
+		return percentile50;
+	}
+
+	/**
+	 * Returns the 95th percentile of the latencies.
+	 * 
+	 * @return The 95th percentile
+	 */
+	public double getPercentile95()
+	{
+		return percentile95;
+	}
+
+	/**
+	 * Returns the 99th percentile of the latencies.
+	 * 
+	 * @return The 99th percentile
+	 */
+	public double getPercentile99()
+	{
+		return percentile99;
+	}
+
+	/**
+	 * Returns the maximum latency.
+	 * 
+	 * @return The maximum latency
+	 */
+	public double getMax()
+	{
+		return max;
+	}
+}
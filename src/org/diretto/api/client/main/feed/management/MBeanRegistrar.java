@@ -0,0 +1,109 @@
+package org.diretto.api.client.main.feed.management;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The {@code abstract} class {@code MBeanRegistrar} provides methods to
+ * register the {@code MBean}s of the {@code FeedService} at the platform
+ * {@link MBeanServer}. <br/><br/>
+ * 
+ * All {@code MBean}s are registered within the domain {@value #DOMAIN}.
+ * 
+ * @author Tobias Schlecht
+ */
+public abstract class MBeanRegistrar
+{
+	public static final String DOMAIN = "org.diretto.api.client.feed";
+
+	/**
+	 * Returns the platform {@link MBeanServer}.
+	 * 
+	 * @return The platform {@code MBeanServer}
+	 */
+	public static MBeanServer getMBeanServer()
+	{
+		return ManagementFactory.getPlatformMBeanServer();
+	}
+
+	/**
+	 * Creates an {@link ObjectName} within the domain {@value #DOMAIN} out of
+	 * the given key properties. The values are quoted if necessary.
+	 * 
+	 * @param keysAndValues The alternating keys and values of the key
+	 *        properties
+	 * @return The {@code ObjectName} or {@code null} if it is not valid
+	 */
+	public static ObjectName createObjectName(String... keysAndValues)
+	{
+		StringBuilder stringBuilder = new StringBuilder(DOMAIN).append(':');
+
+		for(int i = 0; i + 1 < keysAndValues.length; i += 2)
+		{
+			if(i > 0)
+			{
+				stringBuilder.append(',');
+			}
+
+			String value = keysAndValues[i + 1];
+
+			if(value.matches("[\\w.-]*"))
+			{
+				stringBuilder.append(keysAndValues[i]).append('=').append(value);
+			}
+			else
+			{
+				stringBuilder.append(keysAndValues[i]).append('=').append(ObjectName.quote(value));
+			}
+		}
+
+		try
+		{
+			return new ObjectName(stringBuilder.toString());
+		}
+		catch(JMException e)
+		{
+			e.printStackTrace();
+
+			return null;
+		}
+	}
+
+	/**
+	 * Registers the given {@code MBean} under the given {@link ObjectName}. An
+	 * {@code MBean} which is already registered under the {@code ObjectName} is
+	 * replaced.
+	 * 
+	 * @param objectName The {@code ObjectName}
+	 * @param mBean The {@code MBean}
+	 */
+	public static void register(ObjectName objectName, Object mBean)
+	{
+		if(objectName == null)
+		{
+			return;
+		}
+
+		MBeanServer mBeanServer = getMBeanServer();
+
+		synchronized(MBeanRegistrar.class)
+		{
+			try
+			{
+				if(mBeanServer.isRegistered(objectName))
+				{
+					mBeanServer.unregisterMBean(objectName);
+				}
+
+				mBeanServer.registerMBean(mBean, objectName);
+			}
+			catch(JMException e)
+			{
+				e.printStackTrace();
+			}
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package org.diretto.api.client.main.feed.management;
+
+/**
+ * The interface {@code PushIngestMXBean} is the management interface of the
+ * ingest pipeline, which processes the {@code Feed} updates that are pushed by
+ * the hubs.
+ * 
+ * @author Tobias Schlecht
+ */
+public interface PushIngestMXBean
+{
+	/**
+	 * Returns the number of accepted push requests.
+	 * 
+	 * @return The number of accepted push requests
+	 */
+	long getAcceptedRequestCount();
+
+	/**
+	 * Returns the number of push requests which have been rejected, because the
+	 * ingest pipeline was overloaded.
+	 * 
+	 * @return The number of rejected push requests
+	 */
+	long getRejectedRequestCount();
+
+	/**
+	 * Returns the number of push requests which have been rejected, because
+	 * they exceeded the maximum request size.
+	 * 
+	 * @return The number of oversized push requests
+	 */
+	long getOversizedRequestCount();
+
+	/**
+	 * Returns the number of push requests which could not be parsed.
+	 * 
+	 * @return The number of parse failures
+	 */
+	long getParseFailureCount();
+
+	/**
+	 * Returns the number of push requests which are waiting to be parsed.
+	 * 
+	 * @return The size of the parse queue
+	 */
+	int getParseQueueSize();
+
+	/**
+	 * Returns the number of {@code Feed} updates which are waiting to be
+	 * routed.
+	 * 
+	 * @return The size of the route queue
+	 */
+	int getRouteQueueSize();
+
+	/**
+	 * Returns the statistics of the time which is needed to parse a push
+	 * request.
+	 * 
+	 * @return The parse time
+	 */
+	LatencySnapshot getParseTime();
+
+	/**
+	 * Returns the statistics of the time which is needed to route a
+	 * {@code Feed} update to the corresponding {@code Feed} handler.
+	 * 
+	 * @return The route time
+	 */
+	LatencySnapshot getRouteTime();
+}
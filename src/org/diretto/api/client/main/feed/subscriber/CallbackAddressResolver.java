@@ -0,0 +1,448 @@
+package org.diretto.api.client.main.feed.subscriber;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.MalformedURLException;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.configuration.XMLConfiguration;
+import org.diretto.api.client.main.feed.dispatch.DaemonThreadFactory;
+import org.diretto.api.client.util.NetworkUtils;
+
+/**
+ * This class resolves the host address under which the callback
+ * {@link WebServer} is reachable for the hubs. The following strategies are
+ * tried in the given order: <br/><br/>
+ * 
+ * <ol>
+ * <li>The callback {@code URL} which is explicitly configured.</li>
+ * <li>A global IPv4 address of one of the local network interfaces.</li>
+ * <li>The lookup of the global IP address through the configured automation
+ * page (limited by a timeout).</li>
+ * <li>The last known global IP address, which is cached on disk (only if the
+ * lookup has failed, because the address may be stale).</li>
+ * </ol>
+ * 
+ * The resolved IP address is shared by all {@link Subscriber} instances and is
+ * resolved only once at a time, without holding a lock during the lookup. If it
+ * has been determined through the automation page, it is refreshed periodically
+ * in the background. If it has been taken from the disk cache or could not be
+ * resolved at all, the refresh starts immediately. If no strategy succeeds, no
+ * host address is returned, so that no callback {@code URL} with an unknown
+ * host is sent to the hubs.
+ * 
+ * @author Tobias Schlecht
+ */
+final class CallbackAddressResolver
+{
+	private static final String SETTINGS = "pubsubhubbub/subscriber-network-settings";
+
+	private static final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("FeedService-AddressResolver-"));
+
+	private static volatile String cachedIPAddress = null;
+	private static FutureTask<String> resolution = null;
+	private static long resolutionExpiryTime = 0;
+	private static boolean refreshScheduled = false;
+
+	/**
+	 * The constructor is {@code private} to prevent the instantiation of the
+	 * class.
+	 */
+	private CallbackAddressResolver()
+	{
+	}
+
+	/**
+	 * Resolves the host address (e.g. {@code http://192.0.2.1:8084}) under
+	 * which the callback {@link WebServer} is reachable.
+	 * 
+	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 * @return The host address or {@code null} if it could not be resolved
+	 */
+	static String resolveHostAddress(XMLConfiguration xmlConfiguration)
+	{
+		String callbackURL = xmlConfiguration.getString(SETTINGS + "/callback-url");
+
+		if(callbackURL != null && callbackURL.trim().length() > 0)
+		{
+			callbackURL = callbackURL.trim();
+
+			if(callbackURL.endsWith("/"))
+			{
+				callbackURL = callbackURL.substring(0, callbackURL.length() - 1);
+			}
+
+			return callbackURL;
+		}
+
+		String ipAddress = resolveIPAddress(xmlConfiguration);
+
+		if(ipAddress == null)
+		{
+			System.out.println("[FeedService CallbackAddressResolver] The global IP address could not be resolved.");
+
+			return null;
+		}
+
+		return "http://" + ipAddress + ":" + xmlConfiguration.getInt(SETTINGS + "/port-number");
+	}
+
+	/**
+	 * Returns the global IP address of the host. If it is not known yet, it is
+	 * resolved by the first caller, while the other callers wait for the same
+	 * resolution. No lock is held during the resolution. A failed resolution is
+	 * only repeated after the configured refresh interval (in the meantime the
+	 * background refresh may find the IP address).
+	 * 
+	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 * @return The IP address or {@code null} if it could not be resolved
+	 */
+	private static String resolveIPAddress(final XMLConfiguration xmlConfiguration)
+	{
+		String ipAddress = cachedIPAddress;
+
+		if(ipAddress != null)
+		{
+			return ipAddress;
+		}
+
+		FutureTask<String> currentResolution;
+		boolean resolving = false;
+
+		synchronized(CallbackAddressResolver.class)
+		{
+			if(resolution == null || (resolution.isDone() && System.currentTimeMillis() >= resolutionExpiryTime))
+			{
+				resolution = new FutureTask<String>(new Callable<String>()
+				{
+					@Override
+					public String call()
+					{
+						return determineIPAddress(xmlConfiguration);
+					}
+				});
+
+				resolving = true;
+			}
+
+			currentResolution = resolution;
+		}
+
+		if(resolving)
+		{
+			currentResolution.run();
+
+			synchronized(CallbackAddressResolver.class)
+			{
+				resolutionExpiryTime = System.currentTimeMillis() + xmlConfiguration.getLong(SETTINGS + "/address-refresh-interval");
+			}
+		}
+
+		try
+		{
+			return currentResolution.get();
+		}
+		catch(ExecutionException e)
+		{
+			e.getCause().printStackTrace();
+		}
+		catch(InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Determines the global IP address of the host with the strategies in the
+	 * given order.
+	 * 
+	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 * @return The IP address or {@code null} if it could not be determined
+	 */
+	private static String determineIPAddress(XMLConfiguration xmlConfiguration)
+	{
+		String ipAddress = getInterfaceIPAddress();
+
+		if(ipAddress != null)
+		{
+			cachedIPAddress = ipAddress;
+
+			return ipAddress;
+		}
+
+		File cacheFile = getCacheFile(xmlConfiguration);
+
+		ipAddress = lookUpIPAddress(xmlConfiguration);
+
+		if(ipAddress != null)
+		{
+			writeCacheFile(cacheFile, ipAddress);
+
+			cachedIPAddress = ipAddress;
+
+			scheduleRefresh(xmlConfiguration, cacheFile, false);
+
+			return ipAddress;
+		}
+
+		ipAddress = readCacheFile(cacheFile);
+
+		if(ipAddress != null)
+		{
+			System.out.println("[FeedService CallbackAddressResolver] The lookup of the global IP address has failed, the cached IP address is used: " + ipAddress);
+
+			cachedIPAddress = ipAddress;
+		}
+
+		scheduleRefresh(xmlConfiguration, cacheFile, true);
+
+		return ipAddress;
+	}
+
+	/**
+	 * Returns a global IPv4 address of one of the local network interfaces.
+	 * 
+	 * @return The IP address or {@code null} if there is no global IPv4 address
+	 */
+	private static String getInterfaceIPAddress()
+	{
+		try
+		{
+			Enumeration<NetworkInterface> networkInterfaces = NetworkInterface.getNetworkInterfaces();
+
+			while(networkInterfaces != null && networkInterfaces.hasMoreElements())
+			{
+				NetworkInterface networkInterface = networkInterfaces.nextElement();
+
+				if(!networkInterface.isUp() || networkInterface.isLoopback())
+				{
+					continue;
+				}
+
+				Enumeration<InetAddress> inetAddresses = networkInterface.getInetAddresses();
+
+				while(inetAddresses.hasMoreElements())
+				{
+					InetAddress inetAddress = inetAddresses.nextElement();
+
+					if(inetAddress instanceof Inet4Address && !inetAddress.isLoopbackAddress() && !inetAddress.isLinkLocalAddress() && !inetAddress.isSiteLocalAddress() && !inetAddress.isAnyLocalAddress() && !inetAddress.isMulticastAddress())
+					{
+						return inetAddress.getHostAddress();
+					}
+				}
+			}
+		}
+		catch(SocketException e)
+		{
+			e.printStackTrace();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Looks up the global IP address through the configured automation page.
+	 * The lookup is aborted after the configured timeout.
+	 * 
+	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 * @return The IP address or {@code null} if it could not be looked up
+	 */
+	private static String lookUpIPAddress(XMLConfiguration xmlConfiguration)
+	{
+		final URL automationPageURL;
+
+		try
+		{
+			automationPageURL = new URL(xmlConfiguration.getString(SETTINGS + "/automation-page"));
+		}
+		catch(MalformedURLException e)
+		{
+			e.printStackTrace();
+
+			return null;
+		}
+
+		FutureTask<String> lookup = new FutureTask<String>(new Callable<String>()
+		{
+			@Override
+			public String call()
+			{
+				return NetworkUtils.getGlobalIPAddress(automationPageURL);
+			}
+		});
+
+		new DaemonThreadFactory("FeedService-AddressLookup-").newThread(lookup).start();
+
+		try
+		{
+			return lookup.get(xmlConfiguration.getLong(SETTINGS + "/address-lookup-timeout"), TimeUnit.MILLISECONDS);
+		}
+		catch(TimeoutException e)
+		{
+			lookup.cancel(true);
+
+			System.out.println("[FeedService CallbackAddressResolver] The lookup of the global IP address has timed out.");
+		}
+		catch(ExecutionException e)
+		{
+			e.getCause().printStackTrace();
+		}
+		catch(InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Schedules the periodic refresh of the cached IP address, unless it has
+	 * already been scheduled.
+	 * 
+	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 * @param cacheFile The cache file
+	 * @param immediately {@code true} if the first refresh should start
+	 *        immediately (because the IP address is stale or unknown)
+	 */
+	private static synchronized void scheduleRefresh(final XMLConfiguration xmlConfiguration, final File cacheFile, boolean immediately)
+	{
+		if(refreshScheduled)
+		{
+			return;
+		}
+
+		refreshScheduled = true;
+
+		long refreshInterval = xmlConfiguration.getLong(SETTINGS + "/address-refresh-interval");
+
+		refresher.scheduleWithFixedDelay(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				String ipAddress = lookUpIPAddress(xmlConfiguration);
+
+				if(ipAddress != null)
+				{
+					cachedIPAddress = ipAddress;
+
+					writeCacheFile(cacheFile, ipAddress);
+				}
+			}
+		}, immediately ? 0 : refreshInterval, refreshInterval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Returns the file in which the last known IP address is cached.
+	 * 
+	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 * @return The cache file
+	 */
+	private static File getCacheFile(XMLConfiguration xmlConfiguration)
+	{
+		File cacheFile = new File(xmlConfiguration.getString(SETTINGS + "/address-cache-file"));
+
+		if(!cacheFile.isAbsolute())
+		{
+			cacheFile = new File(System.getProperty("user.home"), cacheFile.getPath());
+		}
+
+		return cacheFile;
+	}
+
+	/**
+	 * Reads the last known IP address from the given cache file.
+	 * 
+	 * @param cacheFile The cache file
+	 * @return The IP address or {@code null} if there is no cached IP address
+	 */
+	private static String readCacheFile(File cacheFile)
+	{
+		if(!cacheFile.isFile())
+		{
+			return null;
+		}
+
+		try
+		{
+			BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(cacheFile), "UTF-8"));
+
+			try
+			{
+				String ipAddress = reader.readLine();
+
+				if(ipAddress != null && ipAddress.trim().length() > 0)
+				{
+					return ipAddress.trim();
+				}
+			}
+			finally
+			{
+				reader.close();
+			}
+		}
+		catch(IOException e)
+		{
+			e.printStackTrace();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Writes the given IP address to the given cache file.
+	 * 
+	 * @param cacheFile The cache file
+	 * @param ipAddress The IP address
+	 */
+	private static void writeCacheFile(File cacheFile, String ipAddress)
+	{
+		File temporaryFile = new File(cacheFile.getPath() + ".tmp");
+
+		try
+		{
+			cacheFile.getParentFile().mkdirs();
+
+			Writer writer = new OutputStreamWriter(new FileOutputStream(temporaryFile), "UTF-8");
+
+			try
+			{
+				writer.write(ipAddress);
+			}
+			finally
+			{
+				writer.close();
+			}
+
+			if(!temporaryFile.renameTo(cacheFile))
+			{
+				cacheFile.delete();
+				temporaryFile.renameTo(cacheFile);
+			}
+		}
+		catch(IOException e)
+		{
+			e.printStackTrace();
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package org.diretto.api.client.main.feed.subscriber;
 
 import org.diretto.api.client.main.feed.FeedService;
+import org.diretto.api.client.main.feed.atom.FeedUpdate;
 
 import com.sun.syndication.feed.atom.Feed;
 
@@ -16,7 +17,7 @@ public interface FeedHandler
 	 * 
 	 * @param feedURL The corresponding {@code Feed} {@code URL} in
 	 *        {@code String} representation
-	 * @param feed The {@code Feed} update
+	 * @param feedUpdate The {@code Feed} update
 	 */
-	void onFeedUpdate(String feedURL, Feed feed);
+	void onFeedUpdate(String feedURL, FeedUpdate feedUpdate);
 }
@@ -0,0 +1,297 @@
+package org.diretto.api.client.main.feed.subscriber;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration.XMLConfiguration;
+import org.diretto.api.client.main.feed.atom.AtomParser;
+import org.diretto.api.client.main.feed.atom.FeedEntry;
+import org.diretto.api.client.main.feed.atom.FeedUpdate;
+import org.diretto.api.client.main.feed.dispatch.DaemonThreadFactory;
+import org.diretto.api.client.main.feed.http.FeedHttpClient;
+import org.diretto.api.client.main.feed.http.FeedHttpResponse;
+
+import com.sun.syndication.feed.atom.Feed;
+
+/**
+ * This class represents a {@code FeedPoller}, which serves as alternative to
+ * the {@link Subscriber} in the case that the callback {@link WebServer} is not
+ * reachable from the hub (e.g. behind a NAT). The {@code FeedPoller}
+ * periodically polls the {@link Feed}s and hands the new entries over to the
+ * {@link FeedHandler}. <br/><br/>
+ * 
+ * The {@code Feed}s are requested with conditional HTTP GET requests
+ * ({@code If-None-Match} and {@code If-Modified-Since}), so that an unchanged
+ * {@code Feed} is answered with {@code 304 Not Modified} and does not have to
+ * be parsed. The requests are sent with the shared {@link FeedHttpClient}, so
+ * that the connections are kept alive between the polls. The polling interval
+ * of each {@code Feed} is adapted: It is halved after a poll which has
+ * delivered new entries and doubled after a poll which has not, within the
+ * configured bounds. <br/><br/>
+ * 
+ * The first poll of a {@code Feed} only hands over the entries which are newer
+ * than the given watermark. Without a watermark (e.g. if the checkpointing is
+ * deactivated), the first poll only determines the current entries, so that the
+ * entries which have been published before the first poll are <u>not</u>
+ * delivered.
+ * 
+ * @author Tobias Schlecht
+ */
+public final class FeedPoller
+{
+	private final FeedHandler feedHandler;
+	private final AtomParser atomParser;
+	private final FeedHttpClient feedHttpClient;
+
+	private final long minInterval;
+	private final long maxInterval;
+
+	private final ScheduledExecutorService scheduler;
+
+	/**
+	 * Constructs a {@link FeedPoller}.
+	 * 
+	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 * @param feedHandler The corresponding {@code FeedHandler}
+	 * @param feedHttpClient The {@code FeedHttpClient} which is used to request
+	 *        the {@code Feed}s
+	 */
+	public FeedPoller(XMLConfiguration xmlConfiguration, FeedHandler feedHandler, FeedHttpClient feedHttpClient)
+	{
+		this.feedHandler = feedHandler;
+		this.feedHttpClient = feedHttpClient;
+
+		atomParser = new AtomParser(xmlConfiguration);
+
+		minInterval = Math.max(1, xmlConfiguration.getLong("polling/min-interval"));
+		maxInterval = Math.max(minInterval, xmlConfiguration.getLong("polling/max-interval"));
+
+		scheduler = new ScheduledThreadPoolExecutor(xmlConfiguration.getInt("polling/threads"), new DaemonThreadFactory("FeedService-Poller-"));
+	}
+
+	/**
+	 * Starts polling the {@link Feed} with the specified {@code Feed}
+	 * {@code URL} ({@code String} representation). The first poll only
+	 * determines the current entries of the {@code Feed}.
+	 * 
+	 * @param feedURL A {@code Feed} {@code URL} ({@code String} representation)
+	 */
+	public void poll(String feedURL)
+	{
+		poll(feedURL, null);
+	}
+
+	/**
+	 * Starts polling the {@link Feed} with the specified {@code Feed}
+	 * {@code URL} ({@code String} representation). The first poll hands the
+	 * entries over which are newer than the given watermark.
+	 * 
+	 * @param feedURL A {@code Feed} {@code URL} ({@code String} representation)
+	 * @param watermark The latest processed {@link FeedEntry} or {@code null}
+	 *        if the first poll should only determine the current entries
+	 */
+	public void poll(String feedURL, FeedEntry watermark)
+	{
+		scheduler.execute(new PollTask(feedURL, watermark));
+	}
+
+	/**
+	 * Stops polling all {@link Feed}s.
+	 */
+	public void shutdown()
+	{
+		scheduler.shutdown();
+	}
+
+	/**
+	 * This class represents a {@code PollTask}, which polls one {@link Feed}
+	 * and reschedules itself afterwards.
+	 */
+	private final class PollTask implements Runnable
+	{
+		private final String feedURL;
+
+		private String entityTag = null;
+		private String lastModified = null;
+		private FeedEntry watermark;
+		private Set<String> knownEntryIDs = null;
+		private long interval = minInterval;
+
+		/**
+		 * Constructs a {@link PollTask}.
+		 * 
+		 * @param feedURL The {@code Feed} {@code URL} ({@code String}
+		 *        representation)
+		 * @param watermark The latest processed {@code FeedEntry} or
+		 *        {@code null}
+		 */
+		PollTask(String feedURL, FeedEntry watermark)
+		{
+			this.feedURL = feedURL;
+			this.watermark = watermark;
+		}
+
+		@Override
+		public void run()
+		{
+			boolean changed = false;
+
+			try
+			{
+				changed = fetch();
+			}
+			catch(IOException e)
+			{
+				e.printStackTrace();
+			}
+			catch(RuntimeException e)
+			{
+				e.printStackTrace();
+			}
+			finally
+			{
+				if(changed)
+				{
+					interval = Math.max(minInterval, interval / 2);
+				}
+				else
+				{
+					interval = Math.min(maxInterval, interval * 2);
+				}
+
+				if(!scheduler.isShutdown())
+				{
+					scheduler.schedule(this, interval, TimeUnit.MILLISECONDS);
+				}
+			}
+		}
+
+		/**
+		 * Requests the {@link Feed} with a conditional HTTP GET request and
+		 * handles the response.
+		 * 
+		 * @return {@code true} if the {@code Feed} contains new entries
+		 * @throws IOException If the {@code Feed} could not be requested or
+		 *        parsed
+		 */
+		private boolean fetch() throws IOException
+		{
+			Map<String, String> requestHeaders = new HashMap<String, String>();
+
+			if(entityTag != null)
+			{
+				requestHeaders.put("If-None-Match", entityTag);
+			}
+
+			if(lastModified != null)
+			{
+				requestHeaders.put("If-Modified-Since", lastModified);
+			}
+
+			FeedHttpResponse response = feedHttpClient.get(feedURL, requestHeaders);
+
+			int responseCode = response.getStatusCode();
+
+			if(responseCode != HttpURLConnection.HTTP_OK)
+			{
+				if(responseCode == HttpURLConnection.HTTP_NOT_MODIFIED)
+				{
+					return false;
+				}
+
+				throw new IOException("The feed could not be polled (HTTP " + responseCode + "): " + feedURL);
+			}
+
+			entityTag = response.getHeader("ETag");
+			lastModified = response.getHeader("Last-Modified");
+
+			FeedUpdate feedUpdate;
+
+			InputStream inputStream = response.getInputStream();
+
+			try
+			{
+				feedUpdate = atomParser.parse(inputStream);
+			}
+			finally
+			{
+				inputStream.close();
+			}
+
+			return handle(feedUpdate);
+		}
+
+		/**
+		 * Hands the entries of the given {@link FeedUpdate} over to the
+		 * {@link FeedHandler}, which have not been contained in the previous
+		 * poll. At the first poll the entries which are newer than the
+		 * watermark are handed over.
+		 * 
+		 * @param feedUpdate The polled {@code FeedUpdate}
+		 * @return {@code true} if there have been new entries
+		 */
+		private boolean handle(FeedUpdate feedUpdate)
+		{
+			Set<String> entryIDs = new HashSet<String>();
+			List<FeedEntry> newEntries = new ArrayList<FeedEntry>();
+
+			for(FeedEntry entry : feedUpdate.getEntries())
+			{
+				entryIDs.add(entry.getId());
+
+				if(knownEntryIDs != null)
+				{
+					if(!knownEntryIDs.contains(entry.getId()))
+					{
+						newEntries.add(entry);
+					}
+				}
+				else if(watermark != null && isNewer(entry))
+				{
+					newEntries.add(entry);
+				}
+			}
+
+			knownEntryIDs = entryIDs;
+			watermark = null;
+
+			if(newEntries.isEmpty())
+			{
+				return false;
+			}
+
+			feedHandler.onFeedUpdate(feedURL, new FeedUpdate(feedUpdate.getFeedID(), newEntries, feedUpdate.getPreviousPageURL(), feedUpdate.getFeed()));
+
+			return true;
+		}
+
+		/**
+		 * Checks whether the given {@link FeedEntry} is newer than the
+		 * watermark. Entries which have been updated at exactly the time of the
+		 * watermark are regarded as newer (except for the watermark entry
+		 * itself), so that duplicates have to be suppressed by the receiver.
+		 * 
+		 * @param entry The {@code FeedEntry}
+		 * @return {@code true} if the {@code FeedEntry} is newer
+		 */
+		private boolean isNewer(FeedEntry entry)
+		{
+			if(entry.getUpdated() != watermark.getUpdated())
+			{
+				return entry.getUpdated() > watermark.getUpdated();
+			}
+
+			return !entry.getId().equals(watermark.getId());
+		}
+	}
+}
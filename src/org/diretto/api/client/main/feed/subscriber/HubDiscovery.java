@@ -0,0 +1,91 @@
+package org.diretto.api.client.main.feed.subscriber;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.diretto.api.client.main.feed.atom.AtomParser;
+import org.diretto.api.client.main.feed.http.FeedHttpClient;
+import org.diretto.api.client.main.feed.http.FeedHttpResponse;
+
+import com.sun.syndication.feed.atom.Feed;
+import com.sun.syndication.feed.atom.Link;
+
+/**
+ * This class represents a {@code HubDiscovery}, which determines the hub of a
+ * {@link Feed} by the link with the relation {@code hub}. The {@code Feed} is
+ * fetched with the shared {@link FeedHttpClient}, so that the discoveries of
+ * several {@code Feed}s reuse the pooled connections.
+ * 
+ * @author Tobias Schlecht
+ */
+public final class HubDiscovery
+{
+	private final FeedHttpClient feedHttpClient;
+
+	/**
+	 * Constructs a {@link HubDiscovery}.
+	 * 
+	 * @param feedHttpClient The {@code FeedHttpClient} which is used to fetch
+	 *        the {@code Feed}s
+	 */
+	public HubDiscovery(FeedHttpClient feedHttpClient)
+	{
+		this.feedHttpClient = feedHttpClient;
+	}
+
+	/**
+	 * Returns the hub {@code URL} ({@code String} representation) of the
+	 * {@link Feed} with the specified {@code Feed} {@code URL} ({@code String}
+	 * representation).
+	 * 
+	 * @param feedURL A {@code Feed} {@code URL} ({@code String} representation)
+	 * @return The hub {@code URL} or {@code null} if no hub could be discovered
+	 */
+	public String getHub(String feedURL)
+	{
+		Feed feed;
+
+		try
+		{
+			FeedHttpResponse response = feedHttpClient.get(feedURL);
+
+			if(response.getStatusCode() != 200)
+			{
+				System.out.println("[FeedService HubDiscovery] The feed could not be fetched (HTTP " + response.getStatusCode() + "): " + feedURL);
+
+				return null;
+			}
+
+			InputStream inputStream = response.getInputStream();
+
+			try
+			{
+				feed = AtomParser.parseWithROME(inputStream).getFeed();
+			}
+			finally
+			{
+				inputStream.close();
+			}
+		}
+		catch(IOException e)
+		{
+			e.printStackTrace();
+
+			return null;
+		}
+
+		@SuppressWarnings("unchecked")
+		List<Link> links = feed.getOtherLinks();
+
+		for(Link link : links)
+		{
+			if("hub".equals(link.getRel()))
+			{
+				return link.getHref();
+			}
+		}
+
+		return null;
+	}
+}
@@ -1,77 +1,393 @@
 package org.diretto.api.client.main.feed.subscriber;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.configuration.XMLConfiguration;
+import org.diretto.api.client.main.feed.atom.AtomParser;
+import org.diretto.api.client.main.feed.atom.FeedUpdate;
+import org.diretto.api.client.main.feed.dispatch.DaemonThreadFactory;
+import org.diretto.api.client.main.feed.management.LatencyHistogram;
+import org.diretto.api.client.main.feed.management.LatencySnapshot;
+import org.diretto.api.client.main.feed.management.PushIngestMXBean;
 import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.AbstractHandler;
 
-import com.google.pubsubhubbub.java.subscriber.PuSHhandler;
 import com.sun.syndication.feed.atom.Feed;
-import com.sun.syndication.io.FeedException;
-import com.sun.syndication.io.WireFeedInput;
-import com.sun.syndication.io.XmlReader;
 
 /**
- * This {@code abstract} class extends the {@link PuSHhandler} class and
- * provides an own implementation for the incoming HTTP POST requests, which are
+ * This class represents the {@code Jetty} handler of the callback
+ * {@link WebServer}, which processes the incoming HTTP POST requests, which are
  * sent by the corresponding hub in the case when a subscribed {@link Feed} has
- * been updated.
+ * been updated, as well as the HTTP GET requests, by which the hub verifies a
+ * (un)subscription. <br/><br/>
+ * 
+ * A verification request is only confirmed if the {@link Subscriber} has
+ * approved the action with the same mode, topic and verify token before and the
+ * approval has not expired. The lease which has been granted by the hub is
+ * handed over to the {@link VerificationListener} of the approval. The
+ * approvals are kept in a concurrent {@code Map} of the {@code PushHandler} and
+ * are removed as soon as they have been used or have expired. <br/><br/>
+ * 
+ * A {@code PushHandler} is shared by all {@link Subscriber}s which use the same
+ * callback {@link WebServer}. Each {@code Subscriber} registers its
+ * {@link FeedHandler} under a callback token and a separate {@code FeedHandler}
+ * for each subscribed {@code Feed} under the callback path
+ * {@code /push/<token>/<feed>}. <br/><br/>
+ * 
+ * The route of a request is resolved from its path before the request body is
+ * read, so that requests for unknown tokens or unsubscribed {@code Feed}s are
+ * answered with {@code 404} immediately. A request for a {@code Feed} path is
+ * received on the request {@code Thread} and parsed and handled by the
+ * {@code Thread} of the {@code Feed}, which has its own bounded queue. Thus the
+ * {@code Feed} updates of one {@code Feed} are processed in the order of their
+ * arrival and do not compete with the other {@code Feed}s. <br/><br/>
+ * 
+ * Requests for the path {@code /push/<token>} or the former path {@code /push/}
+ * (from older subscriptions) are processed by a shared ingest pipeline: The
+ * request body is parsed by the parse stage and routed by the route stage to
+ * the {@code FeedHandler} of the token or to all {@code FeedHandler}s, which
+ * ignore the {@code Feed}s of other services. Both stages have bounded queues
+ * and a fixed number of {@code Thread}s. <br/><br/>
+ * 
+ * If the queue of the parse stage or of a {@code Feed} is full, the request is
+ * rejected, so that the hub retries the delivery later.
+ * <br/><br/>
+ * 
+ * The statistics of the ingest pipeline are exposed through the
+ * {@link PushIngestMXBean} interface.
  * 
  * @author Tobias Schlecht
  */
-abstract class PushHandler extends PuSHhandler
+final class PushHandler extends AbstractHandler implements PushIngestMXBean
 {
+	private static final int BUFFER_SIZE = 8192;
+
+	private final AtomParser atomParser;
+
+	private final Map<String, FeedHandler> feedHandlers = new ConcurrentHashMap<String, FeedHandler>();
+	private final Map<String, FeedRoute> feedRoutes = new ConcurrentHashMap<String, FeedRoute>();
+	private final Map<String, Approval> approvedActions = new ConcurrentHashMap<String, Approval>();
+
+	private final ThreadPoolExecutor parseStage;
+	private final ThreadPoolExecutor routeStage;
+
+	private final int feedQueueCapacity;
+	private final int maxRequestSize;
+	private final int overloadStatus;
+	private final int retryAfter;
+	private final long verificationTimeout;
+
+	private final AtomicLong acceptedRequestCount = new AtomicLong(0);
+	private final AtomicLong rejectedRequestCount = new AtomicLong(0);
+	private final AtomicLong oversizedRequestCount = new AtomicLong(0);
+	private final AtomicLong parseFailureCount = new AtomicLong(0);
+
+	private final LatencyHistogram parseTime = new LatencyHistogram();
+	private final LatencyHistogram routeTime = new LatencyHistogram();
+
 	/**
 	 * Constructs a {@link PushHandler}.
+	 * 
+	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 * @param atomParser The {@code AtomParser} for the incoming {@code Feed}
+	 *        updates
 	 */
-	PushHandler()
+	PushHandler(XMLConfiguration xmlConfiguration, AtomParser atomParser)
 	{
 		super();
+
+		this.atomParser = atomParser;
+
+		int parserThreads = xmlConfiguration.getInt("pubsubhubbub/ingest/parser-threads");
+		int parserQueueCapacity = xmlConfiguration.getInt("pubsubhubbub/ingest/parser-queue-capacity");
+		int routerThreads = xmlConfiguration.getInt("pubsubhubbub/ingest/router-threads");
+		int routerQueueCapacity = xmlConfiguration.getInt("pubsubhubbub/ingest/router-queue-capacity");
+
+		feedQueueCapacity = xmlConfiguration.getInt("pubsubhubbub/ingest/feed-queue-capacity");
+		maxRequestSize = xmlConfiguration.getInt("pubsubhubbub/subscriber-network-settings/callback-server/max-request-size");
+		overloadStatus = xmlConfiguration.getInt("pubsubhubbub/ingest/overload-status");
+		retryAfter = xmlConfiguration.getInt("pubsubhubbub/ingest/retry-after");
+		verificationTimeout = xmlConfiguration.getLong("pubsubhubbub/subscriber-network-settings/verification-timeout");
+
+		parseStage = new ThreadPoolExecutor(parserThreads, parserThreads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(parserQueueCapacity), new DaemonThreadFactory("FeedService-Ingest-Parser-"), new ThreadPoolExecutor.AbortPolicy());
+
+		routeStage = new ThreadPoolExecutor(routerThreads, routerThreads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(routerQueueCapacity), new DaemonThreadFactory("FeedService-Ingest-Router-"), new RejectedExecutionHandler()
+		{
+			@Override
+			public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor)
+			{
+				// A full route stage blocks the parse stage, so that the
+				// backpressure reaches the hub through the parse stage queue
+				try
+				{
+					executor.getQueue().put(runnable);
+				}
+				catch(InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+
+					throw new RejectedExecutionException(e);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Registers the given {@link FeedHandler} under the given callback token. A
+	 * {@code FeedHandler} which has been registered under the same token before
+	 * is replaced.
+	 * 
+	 * @param callbackToken The callback token
+	 * @param feedHandler The {@code FeedHandler}
+	 */
+	void register(String callbackToken, FeedHandler feedHandler)
+	{
+		feedHandlers.put(callbackToken, feedHandler);
+	}
+
+	/**
+	 * Unregisters the {@link FeedHandler} of the given callback token.
+	 * 
+	 * @param callbackToken The callback token
+	 */
+	void unregister(String callbackToken)
+	{
+		feedHandlers.remove(callbackToken);
+	}
+
+	/**
+	 * Registers the given {@link FeedHandler} for the {@link Feed} with the
+	 * given name under the given callback token. The {@code Feed} updates are
+	 * expected at the callback path {@code /push/<token>/<feed>}. A
+	 * {@code FeedHandler} which has been registered for the same path before is
+	 * replaced.
+	 * 
+	 * @param callbackToken The callback token
+	 * @param feedName The name of the {@code Feed}
+	 * @param feedURL The {@code Feed} {@code URL} in {@code String}
+	 *        representation
+	 * @param feedHandler The {@code FeedHandler} of the {@code Feed}
+	 */
+	void register(String callbackToken, String feedName, String feedURL, FeedHandler feedHandler)
+	{
+		String routePath = callbackToken + "/" + feedName;
+
+		FeedRoute previousFeedRoute = feedRoutes.put(routePath, new FeedRoute(routePath, feedURL, feedHandler));
+
+		if(previousFeedRoute != null)
+		{
+			previousFeedRoute.shutdown();
+		}
+	}
+
+	/**
+	 * Unregisters the {@link FeedHandler} of the {@link Feed} with the given
+	 * name and the given callback token.
+	 * 
+	 * @param callbackToken The callback token
+	 * @param feedName The name of the {@code Feed}
+	 */
+	void unregister(String callbackToken, String feedName)
+	{
+		FeedRoute feedRoute = feedRoutes.remove(callbackToken + "/" + feedName);
+
+		if(feedRoute != null)
+		{
+			feedRoute.shutdown();
+		}
+	}
+
+	/**
+	 * Approves the (un)subscription with the given mode, topic and verify
+	 * token, so that the corresponding verification request of the hub is
+	 * confirmed. The approval expires after the configured verification
+	 * timeout.
+	 * 
+	 * @param mode The mode ({@code subscribe} or {@code unsubscribe})
+	 * @param topic The {@code Feed} {@code URL} in {@code String}
+	 *        representation
+	 * @param verifyToken The verify token or {@code null}
+	 * @param verificationListener The {@code VerificationListener} which is
+	 *        informed about the verification or {@code null}
+	 */
+	void approve(String mode, String topic, String verifyToken, VerificationListener verificationListener)
+	{
+		removeExpiredApprovals();
+
+		approvedActions.put(createActionKey(mode, topic, verifyToken), new Approval(verificationListener));
+	}
+
+	/**
+	 * Revokes the approval of the (un)subscription with the given mode, topic
+	 * and verify token (e.g. because the request has failed and no verification
+	 * request is expected anymore).
+	 * 
+	 * @param mode The mode ({@code subscribe} or {@code unsubscribe})
+	 * @param topic The {@code Feed} {@code URL} in {@code String}
+	 *        representation
+	 * @param verifyToken The verify token or {@code null}
+	 */
+	void revoke(String mode, String topic, String verifyToken)
+	{
+		approvedActions.remove(createActionKey(mode, topic, verifyToken));
+	}
+
+	/**
+	 * Removes the approval of the (un)subscription with the given mode, topic
+	 * and verify token.
+	 * 
+	 * @param mode The mode ({@code subscribe} or {@code unsubscribe})
+	 * @param topic The {@code Feed} {@code URL} in {@code String}
+	 *        representation
+	 * @param verifyToken The verify token or {@code null}
+	 * @return The {@code Approval} or {@code null} if the action had not been
+	 *         approved or the approval had expired
+	 */
+	private Approval consume(String mode, String topic, String verifyToken)
+	{
+		Approval approval = approvedActions.remove(createActionKey(mode, topic, verifyToken));
+
+		if(approval == null || System.currentTimeMillis() - approval.approvalTime > verificationTimeout)
+		{
+			return null;
+		}
+
+		return approval;
+	}
+
+	/**
+	 * Removes all approvals which have expired, because the hub has never sent
+	 * the corresponding verification request.
+	 */
+	private void removeExpiredApprovals()
+	{
+		long minApprovalTime = System.currentTimeMillis() - verificationTimeout;
+
+		Iterator<Approval> iterator = approvedActions.values().iterator();
+
+		while(iterator.hasNext())
+		{
+			if(iterator.next().approvalTime < minApprovalTime)
+			{
+				iterator.remove();
+			}
+		}
 	}
 
 	/**
-	 * Called when a {@link Feed} update has been arrived.
+	 * Creates the key of an approved action.
 	 * 
-	 * @param feedURL The corresponding {@code Feed} {@code URL} in
-	 *        {@code String} representation
-	 * @param feed The {@code Feed} update
+	 * @param mode The mode ({@code subscribe} or {@code unsubscribe})
+	 * @param topic The {@code Feed} {@code URL} in {@code String}
+	 *        representation
+	 * @param verifyToken The verify token or {@code null}
+	 * @return The key
 	 */
-	abstract void handleFeedUpdate(String feedURL, Feed feed);
+	private static String createActionKey(String mode, String topic, String verifyToken)
+	{
+		return mode + " " + topic + " " + (verifyToken != null ? verifyToken : "");
+	}
+
+	/**
+	 * Returns the route path of the given request target, which is the part
+	 * after the context path without leading and trailing slashes (e.g.
+	 * {@code <token>} or {@code <token>/<feed>}).
+	 * 
+	 * @param target The request target
+	 * @return The route path or an empty {@code String} if the target does not
+	 *         contain a route path
+	 */
+	private static String getRoutePath(String target)
+	{
+		if(target == null)
+		{
+			return "";
+		}
+
+		int beginIndex = 0;
+		int endIndex = target.length();
+
+		while(beginIndex < endIndex && target.charAt(beginIndex) == '/')
+		{
+			beginIndex++;
+		}
+
+		while(endIndex > beginIndex && target.charAt(endIndex - 1) == '/')
+		{
+			endIndex--;
+		}
+
+		return target.substring(beginIndex, endIndex);
+	}
 
 	@Override
 	public void handle(String target, Request request, HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) throws IOException, ServletException
 	{
 		if(httpServletRequest != null && httpServletRequest.getMethod().equals("POST"))
 		{
-			if(httpServletRequest.getContentType().contains("application/atom+xml"))
+			String contentType = httpServletRequest.getContentType();
+			String routePath = getRoutePath(target);
+			FeedRoute feedRoute = null;
+			boolean routeFound;
+
+			if(routePath.indexOf('/') != -1)
 			{
-				InputStream inputStream = httpServletRequest.getInputStream();
+				feedRoute = feedRoutes.get(routePath);
+				routeFound = feedRoute != null;
+			}
+			else
+			{
+				routeFound = routePath.length() == 0 || feedHandlers.containsKey(routePath);
+			}
 
-				try
+			if(!routeFound)
+			{
+				httpServletResponse.setStatus(HttpServletResponse.SC_NOT_FOUND);
+			}
+			else if(contentType != null && contentType.contains("application/atom+xml"))
+			{
+				byte[] body = null;
+
+				if(httpServletRequest.getContentLength() <= maxRequestSize)
 				{
-					WireFeedInput wireFeedInput = new WireFeedInput();
+					body = receive(httpServletRequest.getInputStream());
+				}
 
-					final Feed feed = (Feed) wireFeedInput.build(new XmlReader(inputStream));
+				if(body == null)
+				{
+					oversizedRequestCount.incrementAndGet();
 
-					new Thread(new Runnable()
-					{
-						@Override
-						public void run()
-						{
-							handleFeedUpdate(feed.getId(), feed);
-						}
-					}).start();
+					httpServletResponse.setStatus(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
 				}
-				catch(FeedException e)
+				else if(feedRoute != null ? feedRoute.submit(body) : submit(routePath, body))
 				{
-					e.printStackTrace();
+					acceptedRequestCount.incrementAndGet();
+
+					httpServletResponse.setStatus(HttpServletResponse.SC_OK);
 				}
+				else
+				{
+					rejectedRequestCount.incrementAndGet();
 
-				httpServletResponse.setStatus(HttpServletResponse.SC_OK);
+					httpServletResponse.setStatus(overloadStatus);
+					httpServletResponse.setHeader("Retry-After", String.valueOf(retryAfter));
+				}
 			}
 			else
 			{
@@ -82,9 +398,393 @@ abstract class PushHandler extends PuSHhandler
 
 			request.setHandled(true);
 		}
+		else if(httpServletRequest != null && httpServletRequest.getMethod().equals("GET"))
+		{
+			verify(httpServletRequest, httpServletResponse);
+
+			request.setHandled(true);
+		}
+	}
+
+	/**
+	 * Answers the given verification request of a hub. The challenge is only
+	 * echoed if the action has been approved before. Afterwards the
+	 * {@link VerificationListener} of the approval is informed about the
+	 * granted lease.
+	 * 
+	 * @param httpServletRequest The verification request
+	 * @param httpServletResponse The response
+	 * @throws IOException If the response could not be written
+	 */
+	private void verify(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) throws IOException
+	{
+		removeExpiredApprovals();
+
+		String mode = httpServletRequest.getParameter("hub.mode");
+		String topic = httpServletRequest.getParameter("hub.topic");
+		String challenge = httpServletRequest.getParameter("hub.challenge");
+		String verifyToken = httpServletRequest.getParameter("hub.verify_token");
+
+		Approval approval = null;
+
+		if(mode != null && topic != null && challenge != null)
+		{
+			approval = consume(mode, topic, verifyToken);
+		}
+
+		if(approval == null)
+		{
+			httpServletResponse.setStatus(HttpServletResponse.SC_NOT_FOUND);
+
+			return;
+		}
+
+		httpServletResponse.setStatus(HttpServletResponse.SC_OK);
+		httpServletResponse.setContentType("text/plain");
+		httpServletResponse.getWriter().write(challenge);
+		httpServletResponse.flushBuffer();
+
+		if(approval.verificationListener != null)
+		{
+			approval.verificationListener.onVerified(parseLeaseSeconds(httpServletRequest.getParameter("hub.lease_seconds")));
+		}
+	}
+
+	/**
+	 * Parses the given lease of a verification request.
+	 * 
+	 * @param leaseSeconds The lease in seconds ({@code String} representation)
+	 *        or {@code null}
+	 * @return The lease in seconds or {@code -1} if the lease is not specified
+	 *         or invalid
+	 */
+	private static long parseLeaseSeconds(String leaseSeconds)
+	{
+		if(leaseSeconds == null)
+		{
+			return -1;
+		}
+
+		try
+		{
+			return Math.max(-1, Long.parseLong(leaseSeconds.trim()));
+		}
+		catch(NumberFormatException e)
+		{
+			return -1;
+		}
+	}
+
+	/**
+	 * Receives the complete request body from the given {@link InputStream}.
+	 * 
+	 * @param inputStream The {@code InputStream} of the request
+	 * @return The request body or {@code null} if the request body exceeds the
+	 *         configured maximum request size
+	 * @throws IOException If the request body could not be read
+	 */
+	private byte[] receive(InputStream inputStream) throws IOException
+	{
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream(BUFFER_SIZE);
+
+		byte[] buffer = new byte[BUFFER_SIZE];
+		int length;
+
+		while((length = inputStream.read(buffer)) != -1)
+		{
+			if(outputStream.size() + length > maxRequestSize)
+			{
+				return null;
+			}
+
+			outputStream.write(buffer, 0, length);
+		}
+
+		return outputStream.toByteArray();
+	}
+
+	/**
+	 * Submits the given request body to the parse stage of the shared ingest
+	 * pipeline.
+	 * 
+	 * @param callbackToken The callback token of the request or an empty
+	 *        {@code String}
+	 * @param body The request body
+	 * @return {@code true} if the request body has been accepted and
+	 *         {@code false} if the parse stage is overloaded
+	 */
+	private boolean submit(final String callbackToken, final byte[] body)
+	{
+		try
+		{
+			parseStage.execute(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					FeedUpdate feedUpdate = parse(body);
+
+					if(feedUpdate != null)
+					{
+						dispatchToRouteStage(callbackToken, feedUpdate);
+					}
+				}
+			});
+
+			return true;
+		}
+		catch(RejectedExecutionException e)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * Parses the given request body.
+	 * 
+	 * @param body The request body
+	 * @return The resulting {@link FeedUpdate} or {@code null} if the request
+	 *         body could not be parsed
+	 */
+	private FeedUpdate parse(byte[] body)
+	{
+		FeedUpdate feedUpdate;
+
+		long startTime = System.nanoTime();
+
+		try
+		{
+			feedUpdate = atomParser.parse(new ByteArrayInputStream(body));
+		}
+		catch(IOException e)
+		{
+			parseFailureCount.incrementAndGet();
+
+			e.printStackTrace();
+
+			return null;
+		}
+
+		parseTime.recordSince(startTime);
+
+		return feedUpdate;
+	}
+
+	/**
+	 * Hands the given {@link FeedUpdate} over to the route stage of the shared
+	 * ingest pipeline.
+	 * 
+	 * @param callbackToken The callback token of the request or an empty
+	 *        {@code String}
+	 * @param feedUpdate The {@code FeedUpdate}
+	 */
+	private void dispatchToRouteStage(final String callbackToken, final FeedUpdate feedUpdate)
+	{
+		routeStage.execute(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				long startTime = System.nanoTime();
+
+				route(callbackToken, feedUpdate);
+
+				routeTime.recordSince(startTime);
+			}
+		});
+	}
+
+	/**
+	 * Routes the given {@link FeedUpdate} to the {@link FeedHandler} of the
+	 * given callback token or to all {@code FeedHandler}s if there is no
+	 * callback token.
+	 * 
+	 * @param callbackToken The callback token of the request or an empty
+	 *        {@code String}
+	 * @param feedUpdate The {@code FeedUpdate}
+	 */
+	private void route(String callbackToken, FeedUpdate feedUpdate)
+	{
+		if(callbackToken.length() > 0)
+		{
+			FeedHandler feedHandler = feedHandlers.get(callbackToken);
+
+			if(feedHandler != null)
+			{
+				feedHandler.onFeedUpdate(feedUpdate.getFeedID(), feedUpdate);
+			}
+		}
 		else
 		{
-			super.handle(target, request, httpServletRequest, httpServletResponse);
+			for(FeedHandler feedHandler : feedHandlers.values())
+			{
+				feedHandler.onFeedUpdate(feedUpdate.getFeedID(), feedUpdate);
+			}
+		}
+	}
+
+	@Override
+	public long getAcceptedRequestCount()
+	{
+		return acceptedRequestCount.get();
+	}
+
+	@Override
+	public long getRejectedRequestCount()
+	{
+		return rejectedRequestCount.get();
+	}
+
+	@Override
+	public long getOversizedRequestCount()
+	{
+		return oversizedRequestCount.get();
+	}
+
+	@Override
+	public long getParseFailureCount()
+	{
+		return parseFailureCount.get();
+	}
+
+	@Override
+	public int getParseQueueSize()
+	{
+		int parseQueueSize = parseStage.getQueue().size();
+
+		for(FeedRoute feedRoute : feedRoutes.values())
+		{
+			parseQueueSize += feedRoute.getQueueSize();
+		}
+
+		return parseQueueSize;
+	}
+
+	@Override
+	public int getRouteQueueSize()
+	{
+		return routeStage.getQueue().size();
+	}
+
+	@Override
+	public LatencySnapshot getParseTime()
+	{
+		return parseTime.getSnapshot();
+	}
+
+	@Override
+	public LatencySnapshot getRouteTime()
+	{
+		return routeTime.getSnapshot();
+	}
+
+	/**
+	 * This class represents the route of a single subscribed {@link Feed},
+	 * which parses and handles the {@code Feed} updates on its own
+	 * {@code Thread} with its own bounded queue.
+	 * 
+	 * @author Tobias Schlecht
+	 */
+	private final class FeedRoute
+	{
+		private final String feedURL;
+		private final FeedHandler feedHandler;
+		private final ThreadPoolExecutor executor;
+
+		/**
+		 * Constructs a {@link FeedRoute}.
+		 * 
+		 * @param routePath The route path ({@code <token>/<feed>})
+		 * @param feedURL The {@code Feed} {@code URL} in {@code String}
+		 *        representation
+		 * @param feedHandler The {@code FeedHandler} of the {@code Feed}
+		 */
+		private FeedRoute(String routePath, String feedURL, FeedHandler feedHandler)
+		{
+			this.feedURL = feedURL;
+			this.feedHandler = feedHandler;
+
+			executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(feedQueueCapacity), new DaemonThreadFactory("FeedService-Ingest-" + routePath.replace('/', '-') + "-"), new ThreadPoolExecutor.AbortPolicy());
+		}
+
+		/**
+		 * Submits the given request body to the queue of the {@link Feed}.
+		 * 
+		 * @param body The request body
+		 * @return {@code true} if the request body has been accepted and
+		 *         {@code false} if the queue is full
+		 */
+		private boolean submit(final byte[] body)
+		{
+			try
+			{
+				executor.execute(new Runnable()
+				{
+					@Override
+					public void run()
+					{
+						FeedUpdate feedUpdate = parse(body);
+
+						if(feedUpdate != null)
+						{
+							long startTime = System.nanoTime();
+
+							feedHandler.onFeedUpdate(feedURL, feedUpdate);
+
+							routeTime.recordSince(startTime);
+						}
+					}
+				});
+
+				return true;
+			}
+			catch(RejectedExecutionException e)
+			{
+				return false;
+			}
+		}
+
+		/**
+		 * Returns the number of request bodies which are waiting in the queue
+		 * of the {@link Feed}.
+		 * 
+		 * @return The size of the queue
+		 */
+		private int getQueueSize()
+		{
+			return executor.getQueue().size();
+		}
+
+		/**
+		 * Shuts the {@code Thread} of the {@link FeedRoute} down after the
+		 * queued request bodies have been processed.
+		 */
+		private void shutdown()
+		{
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * This class represents the {@code Approval} of an (un)subscription, which
+	 * contains the time of the approval and the {@link VerificationListener}.
+	 * 
+	 * @author Tobias Schlecht
+	 */
+	private static final class Approval
+	{
+		private final long approvalTime = System.currentTimeMillis();
+		private final VerificationListener verificationListener;
+
+		/**
+		 * Constructs an {@link Approval}.
+		 * 
+		 * @param verificationListener The {@code VerificationListener} or
+		 *        {@code null}
+		 */
+		private Approval(VerificationListener verificationListener)
+		{
+			this.verificationListener = verificationListener;
 		}
 	}
 }
@@ -1,82 +1,114 @@
 package org.diretto.api.client.main.feed.subscriber;
 
-import java.net.MalformedURLException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
 import java.net.URL;
+import java.net.URLEncoder;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.configuration.XMLConfiguration;
 import org.diretto.api.client.base.annotations.InvocationLimited;
 import org.diretto.api.client.main.feed.FeedService;
 import org.diretto.api.client.main.feed.FeedServiceImpl;
 import org.diretto.api.client.util.InvocationUtils;
-import org.diretto.api.client.util.NetworkUtils;
 
 import com.sun.syndication.feed.atom.Feed;
 
 /**
  * This class represents the main part of the {@code Subscriber} role at the
  * {@code PubSubHubbub} protocol and offers the functionalities to subscribe and
- * unsubscribe {@link Feed}s.
+ * unsubscribe {@link Feed}s. <br/><br/>
+ * 
+ * All {@code Subscriber}s within a JVM share one callback {@link WebServer}.
+ * Each {@code Subscriber} subscribes with its own callback path
+ * {@code /push/<token>}, so that the incoming {@code Feed} updates can be
+ * routed to the {@link FeedHandler} of the corresponding service. A
+ * {@code Feed} which is subscribed together with its name and its own
+ * {@code FeedHandler} gets the callback path {@code /push/<token>/<feed>}, so
+ * that its updates are routed without parsing. <br/><br/>
+ * 
+ * The subscriptions are requested with an explicit lease and are renewed by a
+ * {@link SubscriptionLeaseManager} before the lease expires. <br/><br/>
+ * 
+ * The (un)subscription requests are sent with an {@code HttpURLConnection} and
+ * verified by the {@link PushHandler} of the callback {@code WebServer}, so
+ * that the {@code Subscriber} does not need the HTTP client of the
+ * {@code PubSubHubbub} library. <br/><br/>
+ * 
+ * <b>API change:</b> The {@code Subscriber} no longer extends the
+ * {@code Subscriber} of the {@code PubSubHubbub} library, so it cannot be used
+ * as an instance of the library class anymore. Furthermore
+ * {@link #subscribe(String, String)} returns the resulting
+ * {@link SubscriptionState} instead of {@code void} and does not throw an
+ * {@code Exception} anymore, because failed requests are retried by the
+ * {@code SubscriptionLeaseManager}.
  * 
  * @author Tobias Schlecht
  */
-public class Subscriber extends com.google.pubsubhubbub.java.subscriber.Subscriber
+public class Subscriber
 {
-	private final String hostAddress;
+	private static final String CALLBACK_PATH = "/push/";
+	private static final String USER_AGENT = "diretto Java Client FeedService";
+
+	private final XMLConfiguration xmlConfiguration;
+	private final WebServer webServer;
+	private final String callbackToken;
+	private final int hubRequestTimeout;
+	private final SubscriptionLeaseManager leaseManager;
+
+	private final Map<String, String> feedNames = new ConcurrentHashMap<String, String>();
 
 	/**
 	 * The constructor is {@code private} to have strict control what instances
 	 * exist at any time. Instead of the constructor the {@code public}
 	 * <i>static factory method</i>
-	 * {@link #getInstance(XMLConfiguration, FeedHandler)} returns the instances
-	 * of the class.
+	 * {@link #getInstance(XMLConfiguration, String, FeedHandler)} returns the
+	 * instances of the class.
 	 * 
 	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 * @param webServer The shared callback {@code WebServer}
+	 * @param callbackToken The callback token of the service
 	 * @param feedHandler The corresponding {@code FeedHandler}
 	 */
-	private Subscriber(XMLConfiguration xmlConfiguration, final FeedHandler feedHandler)
+	private Subscriber(XMLConfiguration xmlConfiguration, WebServer webServer, String callbackToken, FeedHandler feedHandler)
 	{
-		super(new WebServer(xmlConfiguration, new PushHandler()
-		{
-			@Override
-			void handleFeedUpdate(String feedURL, Feed feed)
-			{
-				feedHandler.onFeedUpdate(feedURL, feed);
-			}
-		}));
+		this.xmlConfiguration = xmlConfiguration;
+		this.webServer = webServer;
+		this.callbackToken = callbackToken;
 
-		String automationPage = xmlConfiguration.getString("pubsubhubbub/subscriber-network-settings/automation-page");
+		hubRequestTimeout = xmlConfiguration.getInt("pubsubhubbub/subscriber-network-settings/hub-request-timeout");
 
-		URL automationPageURL = null;
+		leaseManager = new SubscriptionLeaseManager(xmlConfiguration, this);
 
-		try
-		{
-			automationPageURL = new URL(automationPage);
-		}
-		catch(MalformedURLException e)
-		{
-			e.printStackTrace();
-		}
+		webServer.getPushHandler().register(callbackToken, feedHandler);
 
-		String hostIPAddress = NetworkUtils.getGlobalIPAddress(automationPageURL);
-
-		hostAddress = "http://" + hostIPAddress + ":" + xmlConfiguration.getInt("pubsubhubbub/subscriber-network-settings/port-number");
+		CallbackAddressResolver.resolveHostAddress(xmlConfiguration);
 	}
 
 	/**
 	 * Returns a {@link Subscriber} instance for the given
-	 * {@link XMLConfiguration} and the corresponding {@link FeedHandler}.
+	 * {@link XMLConfiguration}, the given callback token and the corresponding
+	 * {@link FeedHandler}. The callback token has to be unique within the JVM
+	 * and should be stable across restarts, so that the existing subscriptions
+	 * remain valid.
 	 * 
 	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 * @param callbackToken The callback token of the service, which consists
+	 *        only of URL-safe characters
 	 * @param feedHandler The corresponding {@code FeedHandler}
 	 * @return A {@code Subscriber} instance
 	 */
 	@InvocationLimited(legitimateInvocationClasses = {FeedServiceImpl.class})
-	public static synchronized Subscriber getInstance(XMLConfiguration xmlConfiguration, FeedHandler feedHandler)
+	public static synchronized Subscriber getInstance(XMLConfiguration xmlConfiguration, String callbackToken, FeedHandler feedHandler)
 	{
-		String warningMessage = "The method invocation \"" + Subscriber.class.getCanonicalName() + ".getInstance(XMLConfiguration, FeedHandler)\" is not intended for this usage. Use the \"" + FeedService.class.getCanonicalName() + "\" for the feed functionalities.";
-		InvocationUtils.checkMethodInvocation(warningMessage, "getInstance", XMLConfiguration.class, FeedHandler.class);
+		String warningMessage = "The method invocation \"" + Subscriber.class.getCanonicalName() + ".getInstance(XMLConfiguration, String, FeedHandler)\" is not intended for this usage. Use the \"" + FeedService.class.getCanonicalName() + "\" for the feed functionalities.";
+		InvocationUtils.checkMethodInvocation(warningMessage, "getInstance", XMLConfiguration.class, String.class, FeedHandler.class);
 
-		return new Subscriber(xmlConfiguration, feedHandler);
+		return new Subscriber(xmlConfiguration, WebServer.getInstance(xmlConfiguration), callbackToken, feedHandler);
 	}
 
 	/**
@@ -86,11 +118,59 @@ public class Subscriber extends com.google.pubsubhubbub.java.subscriber.Subscrib
 	 * 
 	 * @param hubURL A hub {@code URL} ({@code String} representation)
 	 * @param feedURL A {@code Feed} {@code URL} ({@code String} representation)
-	 * @throws Exception
+	 * @return The resulting {@code SubscriptionState}
 	 */
-	public void subscribe(String hubURL, String feedURL) throws Exception
+	public SubscriptionState subscribe(String hubURL, String feedURL)
 	{
-		subscribe(hubURL, feedURL, hostAddress, null, null);
+		return leaseManager.subscribe(hubURL, null, feedURL);
+	}
+
+	/**
+	 * Subscribes for the {@link Feed} with the specified {@code Feed}
+	 * {@code URL} ({@code String} representation) at the hub with the given hub
+	 * {@code URL} ({@code String} representation). The {@code Feed} updates are
+	 * expected at the callback path {@code /push/<token>/<feed>} and are handed
+	 * over to the given {@link FeedHandler}.
+	 * 
+	 * @param hubURL A hub {@code URL} ({@code String} representation)
+	 * @param feedURL A {@code Feed} {@code URL} ({@code String} representation)
+	 * @param feedName The name of the {@code Feed}, which consists only of
+	 *        URL-safe characters
+	 * @param feedHandler The {@code FeedHandler} of the {@code Feed}
+	 * @return The resulting {@code SubscriptionState}
+	 */
+	public SubscriptionState subscribe(String hubURL, String feedURL, String feedName, FeedHandler feedHandler)
+	{
+		webServer.getPushHandler().register(callbackToken, feedName, feedURL, feedHandler);
+
+		feedNames.put(feedURL, feedName);
+
+		return subscribe(hubURL, feedURL);
+	}
+
+	/**
+	 * Subscribes for the {@link Feed} with the specified {@code Feed}
+	 * {@code URL} ({@code String} representation) at the hub which is
+	 * determined by the given {@link HubDiscovery}. If no hub can be
+	 * discovered, the discovery is repeated with the retries of the
+	 * subscription. The {@code Feed} updates are expected at the callback path
+	 * {@code /push/<token>/<feed>} and are handed over to the given
+	 * {@link FeedHandler}.
+	 * 
+	 * @param hubDiscovery The {@code HubDiscovery}
+	 * @param feedURL A {@code Feed} {@code URL} ({@code String} representation)
+	 * @param feedName The name of the {@code Feed}, which consists only of
+	 *        URL-safe characters
+	 * @param feedHandler The {@code FeedHandler} of the {@code Feed}
+	 * @return The resulting {@code SubscriptionState}
+	 */
+	public SubscriptionState subscribe(HubDiscovery hubDiscovery, String feedURL, String feedName, FeedHandler feedHandler)
+	{
+		webServer.getPushHandler().register(callbackToken, feedName, feedURL, feedHandler);
+
+		feedNames.put(feedURL, feedName);
+
+		return leaseManager.subscribe(null, hubDiscovery, feedURL);
 	}
 
 	/**
@@ -104,18 +184,304 @@ public class Subscriber extends com.google.pubsubhubbub.java.subscriber.Subscrib
 	 */
 	public void unsubscribe(String hubURL, String feedURL) throws Exception
 	{
-		unsubscribe(hubURL, feedURL, hostAddress, null);
+		leaseManager.unsubscribe(hubURL, feedURL);
+	}
+
+	/**
+	 * Returns the {@link SubscriptionState} of the {@link Feed} with the
+	 * specified {@code Feed} {@code URL} ({@code String} representation).
+	 * 
+	 * @param feedURL A {@code Feed} {@code URL} ({@code String} representation)
+	 * @return The {@code SubscriptionState}
+	 */
+	public SubscriptionState getSubscriptionState(String feedURL)
+	{
+		return leaseManager.getSubscriptionState(feedURL);
 	}
 
-	@Override
+	/**
+	 * Returns the host address under which the callback {@link WebServer} is
+	 * reachable. The address is resolved by the
+	 * {@link CallbackAddressResolver}, so that a refreshed address is used for
+	 * later (un)subscriptions.
+	 * 
+	 * @return The host address or {@code null} if it could not be resolved
+	 */
+	String getHostAddress()
+	{
+		return CallbackAddressResolver.resolveHostAddress(xmlConfiguration);
+	}
+
+	/**
+	 * Returns the callback {@code URL} of the given {@link Feed} for the given
+	 * host address.
+	 * 
+	 * @param hostAddress The host address or {@code null}
+	 * @param feedURL The {@code Feed} {@code URL} ({@code String}
+	 *        representation)
+	 * @return The callback {@code URL} or {@code null} if the host address is
+	 *         unknown
+	 */
+	private String getCallbackURL(String hostAddress, String feedURL)
+	{
+		if(hostAddress == null)
+		{
+			return null;
+		}
+
+		String feedName = feedNames.get(feedURL);
+
+		if(feedName == null)
+		{
+			return hostAddress + CALLBACK_PATH + callbackToken;
+		}
+
+		return hostAddress + CALLBACK_PATH + callbackToken + "/" + feedName;
+	}
+
+	/**
+	 * Sends a subscription request for the given {@link Feed} to the given hub.
+	 * 
+	 * @param hubURL The hub {@code URL} ({@code String} representation)
+	 * @param feedURL The {@code Feed} {@code URL} ({@code String}
+	 *        representation)
+	 * @param hostAddress The host address
+	 * @param verifyToken The verify token or {@code null}
+	 * @param leaseSeconds The requested lease in seconds or {@code null}
+	 * @return The HTTP status code of the response of the hub or {@code 400} if
+	 *         the hub, the {@code Feed} or the host address is unknown
+	 * @throws Exception If the request could not be sent
+	 */
 	public int subscribe(String hubURL, String feedURL, String hostAddress, String verifyToken, String leaseSeconds) throws Exception
 	{
-		return super.subscribe(hubURL, feedURL, hostAddress, verifyToken, leaseSeconds);
+		return subscribe(hubURL, feedURL, hostAddress, verifyToken, leaseSeconds, null);
+	}
+
+	/**
+	 * Sends a subscription request for the given {@link Feed} to the given hub
+	 * and informs the given {@link VerificationListener} as soon as the hub has
+	 * verified the subscription.
+	 * 
+	 * @param hubURL The hub {@code URL} ({@code String} representation)
+	 * @param feedURL The {@code Feed} {@code URL} ({@code String}
+	 *        representation)
+	 * @param hostAddress The host address
+	 * @param verifyToken The verify token or {@code null}
+	 * @param leaseSeconds The requested lease in seconds or {@code null}
+	 * @param verificationListener The {@code VerificationListener} or
+	 *        {@code null}
+	 * @return The HTTP status code of the response of the hub or {@code 400} if
+	 *         the hub, the {@code Feed} or the host address is unknown
+	 * @throws IOException If the request could not be sent
+	 */
+	int subscribe(String hubURL, String feedURL, String hostAddress, String verifyToken, String leaseSeconds, VerificationListener verificationListener) throws IOException
+	{
+		return sendHubRequest("subscribe", hubURL, feedURL, getCallbackURL(hostAddress, feedURL), verifyToken, leaseSeconds, verificationListener);
 	}
 
-	@Override
+	/**
+	 * Sends an unsubscription request for the given {@link Feed} to the given
+	 * hub and removes the callback path of the {@code Feed}.
+	 * 
+	 * @param hubURL The hub {@code URL} ({@code String} representation)
+	 * @param feedURL The {@code Feed} {@code URL} ({@code String}
+	 *        representation)
+	 * @param hostAddress The host address
+	 * @param verifyToken The verify token or {@code null}
+	 * @return The HTTP status code of the response of the hub or {@code 400} if
+	 *         the hub, the {@code Feed} or the host address is unknown
+	 * @throws Exception If the request could not be sent
+	 */
 	public int unsubscribe(String hubURL, String feedURL, String hostAddress, String verifyToken) throws Exception
 	{
-		return super.unsubscribe(hubURL, feedURL, hostAddress, verifyToken);
+		int statusCode = sendHubRequest("unsubscribe", hubURL, feedURL, getCallbackURL(hostAddress, feedURL), verifyToken, null, null);
+
+		String feedName = feedNames.remove(feedURL);
+
+		if(feedName != null)
+		{
+			webServer.getPushHandler().unregister(callbackToken, feedName);
+		}
+
+		return statusCode;
+	}
+
+	/**
+	 * Sends a (un)subscription request with synchronous verification to the
+	 * given hub. The action is approved at the {@link PushHandler} of the
+	 * callback {@link WebServer} before, so that the verification request of
+	 * the hub is confirmed. Unless the hub has accepted the request for a later
+	 * verification ({@code 202}), the approval is revoked afterwards.
+	 * 
+	 * @param mode The mode ({@code subscribe} or {@code unsubscribe})
+	 * @param hubURL The hub {@code URL} ({@code String} representation)
+	 * @param feedURL The {@code Feed} {@code URL} ({@code String}
+	 *        representation)
+	 * @param callbackURL The callback {@code URL} ({@code String}
+	 *        representation)
+	 * @param verifyToken The verify token or {@code null}
+	 * @param leaseSeconds The requested lease in seconds or {@code null}
+	 * @param verificationListener The {@code VerificationListener} which is
+	 *        informed about the verification or {@code null}
+	 * @return The HTTP status code of the response of the hub or {@code 400} if
+	 *         the hub, the {@code Feed} or the host address is unknown
+	 * @throws IOException If the request could not be sent
+	 */
+	private int sendHubRequest(String mode, String hubURL, String feedURL, String callbackURL, String verifyToken, String leaseSeconds, VerificationListener verificationListener) throws IOException
+	{
+		if(hubURL == null || feedURL == null || callbackURL == null)
+		{
+			return 400;
+		}
+
+		StringBuilder body = new StringBuilder();
+
+		appendParameter(body, "hub.callback", callbackURL);
+		appendParameter(body, "hub.mode", mode);
+		appendParameter(body, "hub.topic", feedURL);
+		appendParameter(body, "hub.verify", "sync");
+
+		if(leaseSeconds != null)
+		{
+			appendParameter(body, "hub.lease_seconds", leaseSeconds);
+		}
+
+		if(verifyToken != null)
+		{
+			appendParameter(body, "hub.verify_token", verifyToken);
+		}
+
+		PushHandler pushHandler = webServer.getPushHandler();
+
+		pushHandler.approve(mode, feedURL, verifyToken, verificationListener);
+
+		int statusCode = -1;
+
+		try
+		{
+			statusCode = postHubRequest(hubURL, body.toString().getBytes("UTF-8"));
+		}
+		finally
+		{
+			if(statusCode != 202)
+			{
+				pushHandler.revoke(mode, feedURL, verifyToken);
+			}
+		}
+
+		return statusCode;
+	}
+
+	/**
+	 * Posts the given URL-encoded (un)subscription request to the given hub.
+	 * 
+	 * @param hubURL The hub {@code URL} ({@code String} representation)
+	 * @param content The URL-encoded request body
+	 * @return The HTTP status code of the response of the hub
+	 * @throws IOException If the request could not be sent
+	 */
+	private int postHubRequest(String hubURL, byte[] content) throws IOException
+	{
+		HttpURLConnection connection = (HttpURLConnection) new URL(hubURL).openConnection();
+
+		try
+		{
+			connection.setRequestMethod("POST");
+			connection.setConnectTimeout(hubRequestTimeout);
+			connection.setReadTimeout(hubRequestTimeout);
+			connection.setDoOutput(true);
+			connection.setFixedLengthStreamingMode(content.length);
+			connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+			connection.setRequestProperty("User-Agent", USER_AGENT);
+
+			OutputStream outputStream = connection.getOutputStream();
+
+			try
+			{
+				outputStream.write(content);
+			}
+			finally
+			{
+				outputStream.close();
+			}
+
+			int statusCode = connection.getResponseCode();
+
+			discardResponse(connection);
+
+			return statusCode;
+		}
+		catch(IOException e)
+		{
+			connection.disconnect();
+
+			throw e;
+		}
+	}
+
+	/**
+	 * Appends the given parameter in URL-encoded form to the given request
+	 * body.
+	 * 
+	 * @param body The request body
+	 * @param name The name of the parameter
+	 * @param value The value of the parameter
+	 * @throws UnsupportedEncodingException If UTF-8 is not supported
+	 */
+	private static void appendParameter(StringBuilder body, String name, String value) throws UnsupportedEncodingException
+	{
+		if(body.length() > 0)
+		{
+			body.append('&');
+		}
+
+		body.append(name).append('=').append(URLEncoder.encode(value, "UTF-8"));
+	}
+
+	/**
+	 * Reads and closes the response body of the given connection, so that the
+	 * underlying connection is kept alive and can be reused for the next
+	 * request to the same hub.
+	 * 
+	 * @param connection The connection
+	 */
+	private static void discardResponse(HttpURLConnection connection)
+	{
+		InputStream inputStream = null;
+
+		try
+		{
+			inputStream = connection.getErrorStream();
+
+			if(inputStream == null)
+			{
+				inputStream = connection.getInputStream();
+			}
+
+			byte[] buffer = new byte[1024];
+
+			while(inputStream.read(buffer) != -1)
+			{
+				// Discard the response body
+			}
+		}
+		catch(IOException e)
+		{
+			// The response body is not needed
+		}
+		finally
+		{
+			if(inputStream != null)
+			{
+				try
+				{
+					inputStream.close();
+				}
+				catch(IOException e)
+				{
+					e.printStackTrace();
+				}
+			}
+		}
 	}
 }
@@ -0,0 +1,476 @@
+package org.diretto.api.client.main.feed.subscriber;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.configuration.XMLConfiguration;
+import org.diretto.api.client.main.feed.dispatch.DaemonThreadFactory;
+
+import com.sun.syndication.feed.atom.Feed;
+
+/**
+ * This class represents a {@code SubscriptionLeaseManager}, which requests the
+ * subscriptions of the {@link Feed}s with an explicit lease and renews them
+ * before the lease expires. <br/><br/>
+ * 
+ * Every (un)subscription request is sent with a new random verify token. As
+ * soon as the hub has verified the subscription, the lease which has been
+ * granted by the hub (or the requested lease if the hub has not specified one)
+ * determines the expiry time and the renewal, because the hub may grant a
+ * shorter lease than requested. If the hub accepts the request for a later
+ * verification, but does not verify it within the verification timeout, the
+ * request is repeated. The renewal is scheduled after the configured fraction
+ * of the lease, shortened by a random jitter, so that many nodes which have
+ * subscribed at the same time do not renew at the same time. Failed requests
+ * are retried after the configured retry interval (also with jitter). If no hub
+ * has been discovered, the retry repeats the {@link HubDiscovery}. The
+ * {@link SubscriptionState} of each {@code Feed} is recorded.
+ * 
+ * @author Tobias Schlecht
+ */
+final class SubscriptionLeaseManager
+{
+	private static final String SETTINGS = "pubsubhubbub/subscription-lease";
+
+	private final Subscriber subscriber;
+
+	private final long leaseSeconds;
+	private final double renewalRatio;
+	private final double renewalJitter;
+	private final long retryInterval;
+	private final long verificationTimeout;
+
+	private final Random random = new SecureRandom();
+	private final ScheduledExecutorService renewalExecutor;
+
+	private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<String, Subscription>();
+
+	/**
+	 * Constructs a {@link SubscriptionLeaseManager}.
+	 * 
+	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 * @param subscriber The {@code Subscriber} which sends the requests
+	 */
+	SubscriptionLeaseManager(XMLConfiguration xmlConfiguration, Subscriber subscriber)
+	{
+		this.subscriber = subscriber;
+
+		leaseSeconds = xmlConfiguration.getLong(SETTINGS + "/lease-seconds");
+		renewalRatio = Math.max(0.1, Math.min(1.0, xmlConfiguration.getDouble(SETTINGS + "/renewal-ratio")));
+		renewalJitter = Math.max(0.0, Math.min(0.5, xmlConfiguration.getDouble(SETTINGS + "/renewal-jitter")));
+		retryInterval = xmlConfiguration.getLong(SETTINGS + "/retry-interval");
+		verificationTimeout = xmlConfiguration.getLong("pubsubhubbub/subscriber-network-settings/verification-timeout");
+
+		renewalExecutor = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("FeedService-LeaseRenewal-"));
+	}
+
+	/**
+	 * Subscribes for the {@link Feed} with the given {@code Feed} {@code URL}
+	 * at the hub with the given hub {@code URL} and schedules the renewal of
+	 * the subscription. If the hub {@code URL} is {@code null}, the hub is
+	 * determined by the given {@link HubDiscovery} before each attempt until it
+	 * has been discovered.
+	 * 
+	 * @param hubURL A hub {@code URL} ({@code String} representation) or
+	 *        {@code null}
+	 * @param hubDiscovery The {@code HubDiscovery} or {@code null}
+	 * @param feedURL A {@code Feed} {@code URL} ({@code String} representation)
+	 * @return The resulting {@code SubscriptionState}
+	 */
+	SubscriptionState subscribe(String hubURL, HubDiscovery hubDiscovery, String feedURL)
+	{
+		Subscription subscription = new Subscription(hubURL, hubDiscovery, feedURL);
+
+		Subscription previousSubscription = subscriptions.put(feedURL, subscription);
+
+		if(previousSubscription != null)
+		{
+			previousSubscription.cancelRenewal();
+		}
+
+		return renew(subscription);
+	}
+
+	/**
+	 * Unsubscribes the {@link Feed} with the given {@code Feed} {@code URL} at
+	 * the hub with the given hub {@code URL} and cancels the renewal of the
+	 * subscription.
+	 * 
+	 * @param hubURL A hub {@code URL} ({@code String} representation)
+	 * @param feedURL A {@code Feed} {@code URL} ({@code String} representation)
+	 * @throws Exception If the request could not be sent
+	 */
+	void unsubscribe(String hubURL, String feedURL) throws Exception
+	{
+		Subscription subscription = subscriptions.remove(feedURL);
+
+		if(subscription != null)
+		{
+			subscription.cancelRenewal();
+		}
+
+		String hostAddress = subscriber.getHostAddress();
+
+		if(hostAddress == null)
+		{
+			throw new IOException("The callback address could not be resolved.");
+		}
+
+		subscriber.unsubscribe(hubURL, feedURL, hostAddress, createVerifyToken());
+	}
+
+	/**
+	 * Returns the {@link SubscriptionState} of the {@link Feed} with the given
+	 * {@code Feed} {@code URL}. If the lease of the subscription has expired in
+	 * the meantime, the state is updated accordingly.
+	 * 
+	 * @param feedURL A {@code Feed} {@code URL} ({@code String} representation)
+	 * @return The {@code SubscriptionState}
+	 */
+	SubscriptionState getSubscriptionState(String feedURL)
+	{
+		Subscription subscription = subscriptions.get(feedURL);
+
+		if(subscription == null)
+		{
+			return SubscriptionState.UNSUBSCRIBED;
+		}
+
+		return subscription.getState();
+	}
+
+	/**
+	 * Sends a subscription request for the given {@link Subscription} and
+	 * schedules the next renewal or retry.
+	 * 
+	 * @param subscription The {@code Subscription}
+	 * @return The resulting {@code SubscriptionState}
+	 */
+	private SubscriptionState renew(final Subscription subscription)
+	{
+		if(subscription.hubURL == null && subscription.hubDiscovery != null)
+		{
+			subscription.hubURL = subscription.hubDiscovery.getHub(subscription.feedURL);
+		}
+
+		if(subscription.hubURL == null)
+		{
+			System.out.println("[FeedService SubscriptionLeaseManager] No hub has been discovered: " + subscription.feedURL);
+
+			subscription.onFailure();
+
+			if(subscription.hubDiscovery != null)
+			{
+				scheduleRenewal(subscription, withJitter(retryInterval));
+			}
+
+			return subscription.getState();
+		}
+
+		String hostAddress = subscriber.getHostAddress();
+
+		if(hostAddress == null)
+		{
+			System.out.println("[FeedService SubscriptionLeaseManager] The subscription is skipped, because the callback address could not be resolved: " + subscription.feedURL);
+
+			subscription.onFailure();
+
+			scheduleRenewal(subscription, withJitter(retryInterval));
+
+			return subscription.getState();
+		}
+
+		SubscriptionVerification verification = new SubscriptionVerification(subscription);
+
+		int statusCode;
+
+		try
+		{
+			statusCode = subscriber.subscribe(subscription.hubURL, subscription.feedURL, hostAddress, createVerifyToken(), String.valueOf(leaseSeconds), verification);
+		}
+		catch(Exception e)
+		{
+			e.printStackTrace();
+
+			statusCode = -1;
+		}
+
+		if(statusCode == 202)
+		{
+			synchronized(subscription)
+			{
+				if(!verification.isVerified())
+				{
+					subscription.onPending();
+
+					scheduleRenewal(subscription, verificationTimeout);
+				}
+			}
+		}
+		else if(statusCode == 204)
+		{
+			if(!verification.isVerified())
+			{
+				verification.onVerified(-1);
+			}
+		}
+		else
+		{
+			System.out.println("[FeedService SubscriptionLeaseManager] The subscription has failed with the status " + statusCode + ": " + subscription.feedURL);
+
+			subscription.onFailure();
+
+			scheduleRenewal(subscription, withJitter(retryInterval));
+		}
+
+		return subscription.getState();
+	}
+
+	/**
+	 * Schedules the next renewal of the given {@link Subscription}, unless the
+	 * subscription has been replaced or removed in the meantime.
+	 * 
+	 * @param subscription The {@code Subscription}
+	 * @param delay The delay in milliseconds
+	 */
+	private void scheduleRenewal(final Subscription subscription, long delay)
+	{
+		if(subscriptions.get(subscription.feedURL) == subscription)
+		{
+			subscription.scheduleRenewal(renewalExecutor.schedule(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					renew(subscription);
+				}
+			}, delay, TimeUnit.MILLISECONDS));
+		}
+	}
+
+	/**
+	 * Shortens the given delay by a random jitter within the configured bounds.
+	 * 
+	 * @param delay The delay in milliseconds
+	 * @return The shortened delay in milliseconds
+	 */
+	private long withJitter(long delay)
+	{
+		double factor;
+
+		synchronized(random)
+		{
+			factor = 1.0 - renewalJitter * random.nextDouble();
+		}
+
+		return Math.max(0, (long) (delay * factor));
+	}
+
+	/**
+	 * Creates a new random verify token.
+	 * 
+	 * @return The verify token
+	 */
+	private String createVerifyToken()
+	{
+		synchronized(random)
+		{
+			return new BigInteger(128, random).toString(32);
+		}
+	}
+
+	/**
+	 * This class represents the {@code Subscription} of a single {@link Feed}
+	 * together with its state and its lease.
+	 * 
+	 * @author Tobias Schlecht
+	 */
+	private static final class Subscription
+	{
+		private final HubDiscovery hubDiscovery;
+		private final String feedURL;
+
+		private volatile String hubURL;
+
+		private SubscriptionState state = SubscriptionState.UNSUBSCRIBED;
+		private long expiryTime = 0;
+		private ScheduledFuture<?> scheduledRenewal = null;
+		private boolean cancelled = false;
+
+		/**
+		 * Constructs a {@link Subscription}.
+		 * 
+		 * @param hubURL The hub {@code URL} ({@code String} representation) or
+		 *        {@code null}
+		 * @param hubDiscovery The {@code HubDiscovery} or {@code null}
+		 * @param feedURL The {@code Feed} {@code URL} ({@code String}
+		 *        representation)
+		 */
+		private Subscription(String hubURL, HubDiscovery hubDiscovery, String feedURL)
+		{
+			this.hubURL = hubURL;
+			this.hubDiscovery = hubDiscovery;
+			this.feedURL = feedURL;
+		}
+
+		/**
+		 * Records a verified subscription.
+		 * 
+		 * @param newExpiryTime The expiry time of the granted lease
+		 */
+		private synchronized void onVerified(long newExpiryTime)
+		{
+			state = SubscriptionState.ACTIVE;
+			expiryTime = newExpiryTime;
+		}
+
+		/**
+		 * Records a subscription request which has been accepted by the hub for
+		 * a later verification.
+		 */
+		private synchronized void onPending()
+		{
+			state = isExpired() ? SubscriptionState.EXPIRED : SubscriptionState.PENDING;
+		}
+
+		/**
+		 * Records a failed subscription request.
+		 * 
+		 * @return The new {@code SubscriptionState}
+		 */
+		private synchronized SubscriptionState onFailure()
+		{
+			state = isExpired() ? SubscriptionState.EXPIRED : SubscriptionState.FAILED;
+
+			return state;
+		}
+
+		/**
+		 * Returns the current {@link SubscriptionState}.
+		 * 
+		 * @return The {@code SubscriptionState}
+		 */
+		private synchronized SubscriptionState getState()
+		{
+			if(state != SubscriptionState.UNSUBSCRIBED && isExpired())
+			{
+				state = SubscriptionState.EXPIRED;
+			}
+
+			return state;
+		}
+
+		/**
+		 * Checks whether a former lease has expired.
+		 * 
+		 * @return {@code true} if a former lease has expired
+		 */
+		private boolean isExpired()
+		{
+			return expiryTime != 0 && System.currentTimeMillis() >= expiryTime;
+		}
+
+		/**
+		 * Stores the given scheduled renewal and cancels the renewal which has
+		 * been scheduled before, unless the renewal has been cancelled.
+		 * 
+		 * @param renewal The scheduled renewal
+		 */
+		private synchronized void scheduleRenewal(ScheduledFuture<?> renewal)
+		{
+			if(cancelled)
+			{
+				renewal.cancel(false);
+			}
+			else
+			{
+				if(scheduledRenewal != null)
+				{
+					scheduledRenewal.cancel(false);
+				}
+
+				scheduledRenewal = renewal;
+			}
+		}
+
+		/**
+		 * Cancels the scheduled renewal.
+		 */
+		private synchronized void cancelRenewal()
+		{
+			cancelled = true;
+
+			if(scheduledRenewal != null)
+			{
+				scheduledRenewal.cancel(false);
+			}
+		}
+	}
+
+	/**
+	 * This class represents the {@code SubscriptionVerification} of a single
+	 * subscription request, which is informed by the {@link PushHandler} as
+	 * soon as the hub has verified the subscription.
+	 * 
+	 * @author Tobias Schlecht
+	 */
+	private final class SubscriptionVerification implements VerificationListener
+	{
+		private final Subscription subscription;
+
+		private volatile boolean verified = false;
+
+		/**
+		 * Constructs a {@link SubscriptionVerification}.
+		 * 
+		 * @param subscription The {@code Subscription}
+		 */
+		private SubscriptionVerification(Subscription subscription)
+		{
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onVerified(long grantedLeaseSeconds)
+		{
+			long lease = leaseSeconds;
+
+			if(grantedLeaseSeconds > 0)
+			{
+				if(grantedLeaseSeconds < leaseSeconds)
+				{
+					System.out.println("[FeedService SubscriptionLeaseManager] The hub has granted a shorter lease of " + grantedLeaseSeconds + " seconds: " + subscription.feedURL);
+				}
+
+				lease = grantedLeaseSeconds;
+			}
+
+			synchronized(subscription)
+			{
+				verified = true;
+
+				subscription.onVerified(System.currentTimeMillis() + lease * 1000);
+			}
+
+			scheduleRenewal(subscription, withJitter((long) (lease * 1000 * renewalRatio)));
+		}
+
+		/**
+		 * Checks whether the hub has verified the subscription.
+		 * 
+		 * @return {@code true} if the hub has verified the subscription
+		 */
+		private boolean isVerified()
+		{
+			return verified;
+		}
+	}
+}
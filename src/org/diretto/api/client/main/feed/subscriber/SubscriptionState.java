@@ -0,0 +1,37 @@
+package org.diretto.api.client.main.feed.subscriber;
+
+/**
+ * This enum represents the states of the subscription of a {@code Feed} at its
+ * hub.
+ * 
+ * @author Tobias Schlecht
+ */
+public enum SubscriptionState
+{
+	/**
+	 * The {@code Feed} has not been subscribed or has been unsubscribed.
+	 */
+	UNSUBSCRIBED,
+
+	/**
+	 * The hub has accepted the subscription, but has not verified it yet.
+	 */
+	PENDING,
+
+	/**
+	 * The hub has verified the subscription and the lease has not expired.
+	 */
+	ACTIVE,
+
+	/**
+	 * The last subscription request has failed, but the lease of a former
+	 * subscription has not expired yet or there has been no lease at all.
+	 */
+	FAILED,
+
+	/**
+	 * The lease has expired without a successful renewal, so that the hub does
+	 * not deliver any {@code Feed} updates anymore.
+	 */
+	EXPIRED
+}
@@ -0,0 +1,19 @@
+package org.diretto.api.client.main.feed.subscriber;
+
+/**
+ * This interface represents a listener, which is informed by the
+ * {@link PushHandler} as soon as the hub has verified an approved
+ * (un)subscription.
+ * 
+ * @author Tobias Schlecht
+ */
+interface VerificationListener
+{
+	/**
+	 * Called when the hub has verified the (un)subscription.
+	 * 
+	 * @param leaseSeconds The lease which has been granted by the hub in
+	 *        seconds or {@code -1} if the hub has not specified a lease
+	 */
+	void onVerified(long leaseSeconds);
+}
@@ -1,48 +1,103 @@
 package org.diretto.api.client.main.feed.subscriber;
 
-import org.apache.commons.configuration.XMLConfiguration;
+import java.util.HashMap;
+import java.util.Map;
 
+import org.apache.commons.configuration.XMLConfiguration;
+import org.diretto.api.client.main.feed.atom.AtomParser;
+import org.diretto.api.client.main.feed.management.MBeanRegistrar;
+import org.eclipse.jetty.jmx.MBeanContainer;
+import org.eclipse.jetty.server.Handler;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.handler.ContextHandler;
-
-import com.google.pubsubhubbub.java.subscriber.Web;
+import org.eclipse.jetty.server.handler.StatisticsHandler;
+import org.eclipse.jetty.server.nio.SelectChannelConnector;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 
 /**
  * This class represents an important part of the {@link Subscriber} role at the
  * {@code PubSubHubbub} protocol. A {@code WebServer} is thereby necessary to
  * enable the processing of the incoming HTTP POST requests of the corresponding
- * hub.
+ * hub. <br/><br/>
+ * 
+ * There is only one {@code WebServer} per port within a JVM. It is shared by
+ * all {@link Subscriber}s, whose {@link FeedHandler}s are registered at the
+ * shared {@link PushHandler} under their callback tokens. <br/><br/>
+ * 
+ * If JMX is activated, the {@code MBean}s of the {@code Jetty} server (e.g. the
+ * connector, the {@code Thread} pool and the request statistics) as well as the
+ * {@code MBean} of the {@link PushHandler} are registered at the platform
+ * {@code MBeanServer}. <br/><br/>
+ * 
+ * The {@code WebServer} does not extend the {@code Web} class of the
+ * {@code PubSubHubbub} library, because its port is stored in a {@code static}
+ * field, which would be shared by the {@code WebServer}s of different ports.
  * 
  * @author Tobias Schlecht
  */
-class WebServer extends Web
+class WebServer
 {
 	private static final String CONTEXT_PATH = "/push";
+	private static final String CALLBACK_SERVER = "pubsubhubbub/subscriber-network-settings/callback-server";
+	private static final String THREAD_POOL_NAME = "FeedService-CallbackServer";
+
+	private static final Map<Integer, WebServer> instances = new HashMap<Integer, WebServer>();
+
+	private final int portNumber;
+	private final PushHandler pushHandler;
 
 	private Server webServer = null;
 
 	/**
-	 * Constructs a {@link WebServer}.
+	 * The constructor is {@code private} to have strict control what instances
+	 * exist at any time. Instead of the constructor the <i>static factory
+	 * method</i> {@link #getInstance(XMLConfiguration)} returns the instances
+	 * of the class.
 	 * 
 	 * @param xmlConfiguration The {@code XMLConfiguration} object
-	 * @param pushHandler A {@code PushHandler}
+	 * @param portNumber The port number
+	 * @param pushHandler The shared {@code PushHandler}
 	 */
-	WebServer(XMLConfiguration xmlConfiguration, PushHandler pushHandler)
+	private WebServer(XMLConfiguration xmlConfiguration, int portNumber, PushHandler pushHandler)
 	{
-		super(xmlConfiguration.getInt("pubsubhubbub/subscriber-network-settings/port-number"));
+		this.portNumber = portNumber;
+		this.pushHandler = pushHandler;
 
-		webServer = new Server(getPort());
+		webServer = new Server();
+
+		boolean jmxActivated = xmlConfiguration.getBoolean("jmx/activated");
+
+		if(jmxActivated)
+		{
+			registerMBeans(pushHandler);
+		}
+
+		webServer.setThreadPool(createThreadPool(xmlConfiguration));
+		webServer.addConnector(createConnector(xmlConfiguration, portNumber));
+		webServer.setSendServerVersion(false);
 
 		ContextHandler contextHandler = new ContextHandler();
 
 		contextHandler.setContextPath(CONTEXT_PATH);
 		contextHandler.setResourceBase(".");
 		contextHandler.setClassLoader(Thread.currentThread().getContextClassLoader());
-
-		webServer.setHandler(contextHandler);
+		contextHandler.setMaxFormContentSize(xmlConfiguration.getInt(CALLBACK_SERVER + "/max-request-size"));
 
 		contextHandler.setHandler(pushHandler);
 
+		Handler handler = contextHandler;
+
+		if(jmxActivated)
+		{
+			StatisticsHandler statisticsHandler = new StatisticsHandler();
+
+			statisticsHandler.setHandler(contextHandler);
+
+			handler = statisticsHandler;
+		}
+
+		webServer.setHandler(handler);
+
 		try
 		{
 			webServer.start();
@@ -53,10 +108,97 @@ class WebServer extends Web
 		}
 	}
 
-	@Override
-	public void setup()
+	/**
+	 * Returns the shared {@link WebServer} for the port which is specified in
+	 * the given {@link XMLConfiguration}. The {@code WebServer} is created and
+	 * started on the first invocation for the port.
+	 * 
+	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 * @return The shared {@code WebServer}
+	 */
+	static synchronized WebServer getInstance(XMLConfiguration xmlConfiguration)
 	{
-		// Just in order to avoid the invocation of the setup() method of the
-		// superclass
+		int portNumber = xmlConfiguration.getInt("pubsubhubbub/subscriber-network-settings/port-number");
+
+		WebServer instance = instances.get(Integer.valueOf(portNumber));
+
+		if(instance == null)
+		{
+			instance = new WebServer(xmlConfiguration, portNumber, new PushHandler(xmlConfiguration, new AtomParser(xmlConfiguration)));
+
+			instances.put(Integer.valueOf(portNumber), instance);
+		}
+
+		return instance;
+	}
+
+	/**
+	 * Returns the shared {@link PushHandler} of the {@link WebServer}.
+	 * 
+	 * @return The {@code PushHandler}
+	 */
+	PushHandler getPushHandler()
+	{
+		return pushHandler;
+	}
+
+	/**
+	 * Registers the {@code MBean} of the given {@link PushHandler} and connects
+	 * an {@link MBeanContainer} to the {@code Jetty} server, which registers
+	 * the {@code MBean}s of all server components which are added afterwards.
+	 * 
+	 * @param pushHandler The {@code PushHandler}
+	 */
+	private void registerMBeans(PushHandler pushHandler)
+	{
+		MBeanContainer mBeanContainer = new MBeanContainer(MBeanRegistrar.getMBeanServer());
+
+		webServer.getContainer().addEventListener(mBeanContainer);
+		webServer.addBean(mBeanContainer);
+
+		MBeanRegistrar.register(MBeanRegistrar.createObjectName("type", "PushIngest", "port", String.valueOf(portNumber)), pushHandler);
+	}
+
+	/**
+	 * Creates the bounded {@link QueuedThreadPool} of the {@link WebServer}.
+	 * 
+	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 * @return The {@code QueuedThreadPool}
+	 */
+	private static QueuedThreadPool createThreadPool(XMLConfiguration xmlConfiguration)
+	{
+		QueuedThreadPool threadPool = new QueuedThreadPool();
+
+		threadPool.setName(THREAD_POOL_NAME);
+		threadPool.setDaemon(true);
+		threadPool.setMinThreads(xmlConfiguration.getInt(CALLBACK_SERVER + "/min-threads"));
+		threadPool.setMaxThreads(xmlConfiguration.getInt(CALLBACK_SERVER + "/max-threads"));
+		threadPool.setMaxQueued(xmlConfiguration.getInt(CALLBACK_SERVER + "/max-queued"));
+		threadPool.setMaxIdleTimeMs(xmlConfiguration.getInt(CALLBACK_SERVER + "/thread-idle-timeout"));
+
+		return threadPool;
+	}
+
+	/**
+	 * Creates the NIO {@link SelectChannelConnector} of the {@link WebServer}.
+	 * 
+	 * @param xmlConfiguration The {@code XMLConfiguration} object
+	 * @param portNumber The port number
+	 * @return The {@code SelectChannelConnector}
+	 */
+	private static SelectChannelConnector createConnector(XMLConfiguration xmlConfiguration, int portNumber)
+	{
+		SelectChannelConnector connector = new SelectChannelConnector();
+
+		connector.setPort(portNumber);
+		connector.setAcceptors(xmlConfiguration.getInt(CALLBACK_SERVER + "/acceptors"));
+		connector.setAcceptQueueSize(xmlConfiguration.getInt(CALLBACK_SERVER + "/accept-queue-size"));
+		connector.setMaxIdleTime(xmlConfiguration.getInt(CALLBACK_SERVER + "/idle-timeout"));
+		connector.setLowResourcesConnections(xmlConfiguration.getInt(CALLBACK_SERVER + "/low-resources-connections"));
+		connector.setLowResourcesMaxIdleTime(xmlConfiguration.getInt(CALLBACK_SERVER + "/low-resources-idle-timeout"));
+		connector.setRequestHeaderSize(xmlConfiguration.getInt(CALLBACK_SERVER + "/request-header-size"));
+		connector.setReuseAddress(true);
+
+		return connector;
 	}
 }